@@ -0,0 +1,98 @@
+import javalib.funworld.*;      // WorldScene
+import java.awt.Color;          // active words are green
+
+//Represents an activeword with a string word, x coordinate, and y coordinate
+class ActiveWord implements IWord {
+  /**
+   * FIELDS:
+   * word -> String
+   * x -> int
+   * y -> int
+   * METHODS:
+   * matches(String) -> boolean
+   * matches(char) -> boolean
+   * reduce() -> IWord
+   * isEmpty() -> boolean
+   * drawWord(WorldScene) -> WorldScene
+   * moveWord() -> IWord
+   * moveWordBy(int) -> IWord
+   * yCoord() -> int
+   * touchesBottom(int) -> boolean
+   * makeActive() -> IWord
+   * isActive() -> boolean
+   * addToPool(WordPool) -> void
+   * METHODS ON FIELDS:
+   * - none -
+   */
+  
+  String word;
+  int x;
+  int y;
+  
+  ActiveWord(String word, int x, int y) {
+    this.word = word;
+    this.x = x;
+    this.y = y;
+  }
+  
+  //Checks if first character of a word matches the given character
+  public boolean matches(String s) {
+    return s.length() == 1 && this.matches(s.charAt(0));
+  }
+  
+  //Checks if first character of a word is 'c', without copying the word
+  public boolean matches(char c) {
+    return !this.word.isEmpty() && this.word.charAt(0) == c;
+  }
+  
+  //Creates a duplicate IWord with the first letter removed
+  public IWord reduce() {
+    return new ActiveWord(word.substring(1), x, y);
+  }
+  
+  //Returns whether or not this.word is an empty string
+  public boolean isEmpty() {
+    return this.word.equals("");
+  }
+  
+  //Draws this word at its designated x and y coordinate on the given 'scene'
+  public WorldScene drawWord(WorldScene scene) {
+    return scene.placeImageXY(TextImageCache.SHARED.get(this.word, 35, Color.GREEN),
+        this.x, this.y);
+  }
+  
+  //Moves the word 25 pixels towards the bottom of the screen
+  public IWord moveWord() {
+    return new ActiveWord(this.word, this.x, this.y + 25);
+  }
+  
+  //Moves the word 'dy' pixels towards the bottom of the screen
+  public IWord moveWordBy(int dy) {
+    return new ActiveWord(this.word, this.x, this.y + dy);
+  }
+  
+  //Returns the y coordinate of this word
+  public int yCoord() {
+    return this.y;
+  }
+  
+  //Returns true if this word has passed the given height
+  public boolean touchesBottom(int height) {
+    return this.y >= height;
+  }
+  
+  //Returns an ActiveWord version of this word
+  public IWord makeActive() {
+    return this;
+  }
+  
+  //Tells that this word IS active
+  public boolean isActive() {
+    return true;
+  }
+  
+  //Stores this word in 'pool' as an active word
+  public void addToPool(WordPool pool) {
+    pool.add(this.word, this.x, this.y, true);
+  }
+}
@@ -0,0 +1,165 @@
+import javalib.funworld.*;      // WorldScene
+
+//Represents a list of words stored in a mutable WordPool
+//Every operation updates the pool in place and returns this same list, so an
+//ArrayLoWord must not be shared between worlds that are still in use
+class ArrayLoWord implements ILoWord {
+  /**
+   * FIELDS:
+   * - pool -> WordPool
+   * - frames -> FrameCache
+   * METHODS:
+   * - checkAndReduce(String) -> ILoWord
+   * - addToEnd(IWord) -> ILoWord
+   * - filterOutEmpties() -> ILoWord
+   * - draw(WorldScene) -> WorldScene
+   * - move() -> ILoWord
+   * - touchBottom(int) -> boolean
+   * - activateWord(String) -> ILoWord
+   * - hasActive() -> boolean
+   * - toConsList() -> ILoWord
+   * - tick(IWord, int) -> TickResult
+   * - type(String) -> ILoWord
+   * - typeAcc(String, boolean) -> ILoWord
+   * - addAllTo(WordPool) -> void
+   * - drawBetween(WorldScene, double) -> WorldScene
+   * - dirtyWordCount() -> int
+   * METHODS ON FIELDS:
+   * - frames.compose(WorldScene) -> WorldScene
+   * - frames.compose(WorldScene, double) -> WorldScene
+   * - pool.add(String, int, int, boolean) -> int
+   * - pool.checkAndReduce(char) -> int
+   * - pool.filterOutEmpties() -> void
+   * - pool.move(int) -> void
+   * - pool.touchBottom(int) -> boolean
+   * - pool.activateWord(char) -> void
+   * - pool.hasActive() -> boolean
+   * - pool.size() -> int
+   * - pool.slotAt(int) -> int
+   * - pool.remaining(int) -> String
+   * - pool.tick(int, int) -> boolean
+   * - pool.type(char, boolean) -> void
+   */
+  
+  WordPool pool;
+  FrameCache frames;
+  
+  ArrayLoWord() {
+    this(new WordPool(16));
+  }
+  
+  ArrayLoWord(WordPool pool) {
+    this.pool = pool;
+    this.frames = new FrameCache(pool);
+  }
+  
+  //Removes the first letter of every active word that starts with 'letter'
+  public ILoWord checkAndReduce(String letter) {
+    if (letter.length() == 1) {
+      this.pool.checkAndReduce(letter.charAt(0));
+    }
+    return this;
+  }
+  
+  //Adds the given word to the end of the pool
+  public ILoWord addToEnd(IWord word) {
+    word.addToPool(this.pool);
+    return this;
+  }
+  
+  //Frees the slots of all empty words
+  public ILoWord filterOutEmpties() {
+    this.pool.filterOutEmpties();
+    return this;
+  }
+  
+  //Draws every word in the pool at its location, active words in green, reusing the
+  //last frame if nothing changed since it was drawn
+  public WorldScene draw(WorldScene scene) {
+    return this.frames.compose(scene);
+  }
+  
+  //Draws every word 'alpha' of the way from its position one step ago to its current
+  //one, for rendering between the ticks of a fixed-timestep game
+  WorldScene drawBetween(WorldScene scene, double alpha) {
+    return this.frames.compose(scene, alpha);
+  }
+  
+  //Returns how many words moved, changed or were removed in the last drawn frame
+  int dirtyWordCount() {
+    return this.frames.dirtyWords;
+  }
+  
+  //Moves every word 25 pixels towards the bottom of the screen
+  public ILoWord move() {
+    this.pool.move(25);
+    return this;
+  }
+  
+  //Does any word touch the bottom of the screen?
+  public boolean touchBottom(int height) {
+    return this.pool.touchBottom(height);
+  }
+  
+  //Activates the same word ConsLoWord.activateWord would
+  public ILoWord activateWord(String letter) {
+    if (letter.length() == 1) {
+      this.pool.activateWord(letter.charAt(0));
+    }
+    return this;
+  }
+  
+  //Does the pool have active words?
+  public boolean hasActive() {
+    return this.pool.hasActive();
+  }
+  
+  //Culls, moves and checks the pool in one pass, then appends the moved spawn
+  public TickResult tick(IWord spawn, int height) {
+    boolean gameOver = this.pool.tick(height, 25);
+    if (!spawn.isEmpty()) {
+      spawn.moveWord().addToPool(this.pool);
+    }
+    return new TickResult(this, gameOver);
+  }
+  
+  //Finds or activates the target and reduces it in one pass over the pool
+  public ILoWord type(String letter) {
+    return this.typeAcc(letter, false);
+  }
+  
+  //Same as type, but never activates a word when 'anyActive' is true
+  public ILoWord typeAcc(String letter, boolean anyActive) {
+    if (letter.length() == 1) {
+      this.pool.type(letter.charAt(0), anyActive);
+    }
+    return this;
+  }
+  
+  //Copies the untyped letters of every word into 'pool'
+  public void addAllTo(WordPool pool) {
+    for (int i = 0; i < this.pool.size(); i++) {
+      int slot = this.pool.slotAt(i);
+      pool.add(this.pool.text[slot], this.pool.typed[slot], this.pool.len[slot],
+          this.pool.x[slot], this.pool.y[slot], this.pool.active[slot]);
+    }
+  }
+  
+  //Copies the pool into the equivalent ConsLoWord list
+  public ILoWord toConsList() {
+    ILoWord result = new MtLoWord();
+    for (int i = this.pool.size() - 1; i >= 0; i--) {
+      int slot = this.pool.slotAt(i);
+      String rest = this.pool.remaining(slot);
+      if (this.pool.active[slot]) {
+        result = new ConsLoWord(new ActiveWord(rest, this.pool.x[slot], this.pool.y[slot]),
+            result);
+      }
+      else {
+        result = new ConsLoWord(new InactiveWord(rest, this.pool.x[slot], this.pool.y[slot]),
+            result);
+      }
+    }
+    return result;
+  }
+}
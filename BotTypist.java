@@ -0,0 +1,81 @@
+//Represents a simulated typist: between ticks it presses 'keysPerTick' keys on
+//average, aiming at the active word or else the lowest word on screen, and presses a
+//random letter instead with probability 'errorRate'
+class BotTypist {
+  /**
+   * FIELDS:
+   * - keysPerTick -> double
+   * - errorRate -> double
+   * - rng -> SplitMix64
+   * - keyDebt -> double
+   * - keys -> int
+   * - words -> int
+   * METHODS:
+   * - reseeded(long) -> BotTypist
+   * - typeFor(ZTypeEngine) -> void
+   * - target(IWordStore) -> int
+   * METHODS ON FIELDS:
+   * - rng.nextLong() -> long
+   * - rng.nextInt(int) -> int
+   */
+
+  double keysPerTick;
+  double errorRate;
+  SplitMix64 rng;
+  //the fraction of a key owed so far; and the keys pressed and words finished so far
+  double keyDebt;
+  int keys;
+  int words;
+
+  BotTypist(double keysPerTick, double errorRate, long seed) {
+    this.keysPerTick = keysPerTick;
+    this.errorRate = errorRate;
+    this.rng = new SplitMix64(seed);
+    this.keyDebt = 0;
+    this.keys = 0;
+    this.words = 0;
+  }
+
+  //Returns a fresh bot with the same skill whose mistakes come from 'seed'
+  BotTypist reseeded(long seed) {
+    return new BotTypist(this.keysPerTick, this.errorRate, seed);
+  }
+
+  //Presses the keys owed before the next tick of 'engine'
+  //A finished word stays on screen until the next tick, so the bot waits for it
+  void typeFor(ZTypeEngine engine) {
+    IWordStore words = engine.store;
+    this.keyDebt += this.keysPerTick;
+    while (this.keyDebt >= 1) {
+      int slot = this.target(words);
+      if (slot == -1) {
+        //nothing to type, and a bot does not bank keys for later
+        this.keyDebt = 0;
+        return;
+      }
+      this.keyDebt -= 1;
+      char c = words.nextLetter(slot);
+      if ((this.rng.nextLong() >>> 11) * 0x1.0p-53 < this.errorRate) {
+        c = WordGenerator.ALPHABET.charAt(this.rng.nextInt(26));
+      }
+      engine.key(c);
+      this.keys++;
+      int active = words.onlyActive();
+      if (active != -1 && words.isEmpty(active)) {
+        this.words++;
+        this.keyDebt = 0;
+        return;
+      }
+    }
+  }
+
+  //Returns the word to type next: the active one, or the lowest one if none is active,
+  //or -1 if the active word is finished or there are no words
+  int target(IWordStore words) {
+    if (words.hasActive()) {
+      int active = words.onlyActive();
+      return active == -1 || words.isEmpty(active) ? -1 : active;
+    }
+    return words.lowest();
+  }
+}
@@ -0,0 +1,164 @@
+import javalib.funworld.*;      // WorldScene
+
+//Represents a list of words
+class ConsLoWord implements ILoWord {
+  /**
+   * FIELDS:
+   * - first -> IWord
+   * - rest -> ILoWord
+   * METHODS:
+   * - checkAndReduce(String) -> ILoWord
+   * - addToEnd(IWord) -> ILoWord
+   * - filterOutEmpties() -> ILoWord
+   * - draw(WorldScene) -> WorldScene
+   * - move() -> ILoWord
+   * - touchBottom(int) -> boolean
+   * - activateWord(String) -> ILoWord
+   * - hasActive() -> boolean
+   * - toConsList() -> ILoWord
+   * - tick(IWord, int) -> TickResult
+   * - type(String) -> ILoWord
+   * - typeAcc(String, boolean) -> ILoWord
+   * - addAllTo(WordPool) -> void
+   * METHODS ON FIELDS:
+   * - first.reduce() -> IWord
+   * - first.drawWord(WorldScene) -> WorldScene
+   * - first.moveWord() -> IWord
+   * - first.touchesBottom(int) -> boolean
+   * - first.matches(String) -> boolean
+   * - first.makeActive() -> IWord
+   * - first.isActive() -> boolean
+   */
+  
+  IWord first;
+  ILoWord rest;
+  
+  ConsLoWord(IWord first, ILoWord rest) {
+    this.first = first;
+    this.rest = rest;
+  }
+  
+  //Removes first letter of string in list if it matches given string
+  public ILoWord checkAndReduce(String letter) {
+    if (this.first.matches(letter)) {
+      return new ConsLoWord(this.first.reduce(), this.rest.checkAndReduce(letter));
+    }
+    else {
+      return new ConsLoWord(this.first, this.rest.checkAndReduce(letter));
+    }
+  }
+  
+  //Adds a word to the end of list
+  public ILoWord addToEnd(IWord word) {
+    /* Fields:
+     * word.word -- String
+     * word.x -- int
+     * word.y -- int
+     * 
+     * Methods:
+     * word.matches(String) -- boolean
+     * word.matches(char) -- boolean
+     * word.reduce() -- IWord
+     * word.isEmpty() -- boolean
+     * word.drawWord(WorldScene) -- WorldScene
+     * word.moveWord() -- IWord
+     * word.moveWordBy(int) -- IWord
+     * word.yCoord() -- int
+     * word.touchesBottom(int) -- boolean
+     * word.makeActive() -- IWord
+     * word.isActive() -- boolean
+     * word.addToPool(WordPool) -- void
+     * 
+     * Methods for fields:
+     * (none)
+     * 
+     */
+
+    return new ConsLoWord(this.first, this.rest.addToEnd(word));
+  }
+  
+  //Filters out words with empty strings
+  public ILoWord filterOutEmpties() {
+    if (this.first.isEmpty()) {
+      return this.rest.filterOutEmpties();
+    }
+    else {
+      return new ConsLoWord(this.first, this.rest.filterOutEmpties());
+    }
+  }
+  
+  //Draws list of words to a scene
+  public WorldScene draw(WorldScene scene) {
+    return this.rest.draw(this.first.drawWord(scene));
+  }
+  
+  //Moves the words in the list down every tick
+  public ILoWord move() {
+    return new ConsLoWord(this.first.moveWord(), this.rest.move());
+  }
+  
+  //Does the word touch the bottom of the screen?
+  public boolean touchBottom(int height) {
+    return this.first.touchesBottom(height) || this.rest.touchBottom(height);
+  }
+  
+  //Turns inactive words into active words if first letter
+  //of string matches given string
+  public ILoWord activateWord(String letter) {
+    if (this.first.matches(letter) && !this.hasActive()) {
+      return new ConsLoWord(this.first.makeActive(), this.rest);
+    }
+    return new ConsLoWord(this.first, this.rest.activateWord(letter));
+  }
+  
+  //Does this list have active words?
+  public boolean hasActive() {
+    return this.first.isActive() || this.rest.hasActive();
+  }
+  
+  //Already the reference representation
+  public ILoWord toConsList() {
+    return this;
+  }
+  
+  //Ticks the rest of the list, then adds this word's contribution to the result
+  //The TickResult is built once at the end of the list and updated on the way back
+  public TickResult tick(IWord spawn, int height) {
+    TickResult result = this.rest.tick(spawn, height);
+    result.gameOver = result.gameOver || this.first.touchesBottom(height);
+    if (!this.first.isEmpty()) {
+      result.words = new ConsLoWord(this.first.moveWord(), result.words);
+    }
+    return result;
+  }
+  
+  //Types 'letter' into the list, with no knowledge yet of any active word
+  public ILoWord type(String letter) {
+    return this.typeAcc(letter, false);
+  }
+  
+  //Types 'letter' into the list, activating this word if it is the first candidate
+  //The rest of the list is only searched for an active word once, at the first
+  //candidate, so the whole key press stays linear
+  public ILoWord typeAcc(String letter, boolean anyActive) {
+    if (this.first.isActive()) {
+      return new ConsLoWord(this.first.matches(letter) ? this.first.reduce() : this.first,
+          this.rest.typeAcc(letter, true));
+    }
+    else if (!anyActive && this.first.matches(letter)) {
+      if (this.rest.hasActive()) {
+        return new ConsLoWord(this.first, this.rest.typeAcc(letter, true));
+      }
+      return new ConsLoWord(this.first.makeActive().reduce(), this.rest);
+    }
+    else {
+      return new ConsLoWord(this.first, this.rest.typeAcc(letter, anyActive));
+    }
+  }
+  
+  //Adds the first word, then the rest
+  public void addAllTo(WordPool pool) {
+    this.first.addToPool(pool);
+    this.rest.addAllTo(pool);
+  }
+}
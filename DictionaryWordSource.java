@@ -0,0 +1,229 @@
+import java.io.IOException;               // for failures opening or mapping the file
+import java.nio.MappedByteBuffer;         // the word list, mapped instead of read
+import java.nio.channels.FileChannel;     // to map the word list
+import java.nio.file.Path;                // where the word list lives
+import java.nio.file.StandardOpenOption;  // to open the word list read-only
+
+//Represents a source of real words sampled from a newline-delimited dictionary file
+//The file is memory-mapped and never turned into Strings: the only heap cost is one int
+//offset per word, sorted into buckets by (length, first letter) so a word of a given
+//length, or length and first letter, is picked in constant time
+//Words are read as single-byte (ASCII) text; empty lines and lines longer than MAX_LEN
+//are skipped, as are '\r' line endings
+class DictionaryWordSource implements IWordSource {
+  /**
+   * FIELDS:
+   * - data -> MappedByteBuffer
+   * - offsets -> int[]
+   * - bucketStart -> int[]
+   * - rng -> SplitMix64
+   * - minLen -> int
+   * - maxLen -> int
+   * - minX -> int
+   * - maxX -> int
+   * - scratch -> char[]
+   * METHODS:
+   * - checkRanges() -> void
+   * - bucket(int, int) -> int
+   * - letterIndex(int) -> int
+   * - lineLength(int, int) -> int
+   * - size() -> int
+   * - countOf(int, char) -> int
+   * - pick() -> int
+   * - load(int) -> int
+   * - wordAt(int) -> String
+   * - nextInto(IWordStore, int) -> int
+   * METHODS ON FIELDS:
+   * - rng.nextInt(int) -> int
+   */
+
+  static final int MAX_LEN = 32;
+
+  MappedByteBuffer data;
+
+  //start of each word in 'data', grouped by bucket
+  int[] offsets;
+
+  //offsets[bucketStart[b] .. bucketStart[b + 1]) are the words in bucket b,
+  //where b = length * 27 + first letter ('a'-'z', or 26 for anything else)
+  int[] bucketStart;
+
+  SplitMix64 rng;
+  int minLen;
+  int maxLen;
+  int minX;
+  int maxX;
+
+  //where a word's bytes are widened to chars before going into a store
+  char[] scratch;
+
+  DictionaryWordSource(Path file, long seed, int minLen, int maxLen, int minX, int maxX)
+      throws IOException {
+    this.rng = new SplitMix64(seed);
+    this.minLen = minLen;
+    this.maxLen = Math.min(maxLen, MAX_LEN);
+    this.minX = minX;
+    this.maxX = maxX;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Dictionary larger than 2GB: " + file);
+      }
+      this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    this.scratch = new char[MAX_LEN];
+    this.buildIndex();
+    this.checkRanges();
+  }
+
+  //Makes a dictionary source with ZType's spawn rules: 3 to 8 letters, x between 60 and 550
+  DictionaryWordSource(Path file, long seed) throws IOException {
+    this(file, seed, 3, 8, 60, 550);
+  }
+
+  //Makes a source over the words already mapped and indexed by 'words', with its own
+  //random numbers and spawn rules, so many games can share one dictionary
+  //The mapped file is only ever read, so the sources may be used from different threads
+  DictionaryWordSource(DictionaryWordSource words, long seed, int minLen, int maxLen,
+      int minX, int maxX) {
+    this.data = words.data;
+    this.offsets = words.offsets;
+    this.bucketStart = words.bucketStart;
+    this.rng = new SplitMix64(seed);
+    this.minLen = minLen;
+    this.maxLen = Math.min(maxLen, MAX_LEN);
+    this.minX = minX;
+    this.maxX = maxX;
+    this.checkRanges();
+    this.scratch = new char[MAX_LEN];
+  }
+
+  //Throws an IllegalArgumentException unless words can be picked: at least one letter,
+  //no more than MAX_LEN, 'minLen' no more than 'maxLen', at least one word that long,
+  //and some room for x
+  void checkRanges() {
+    if (this.minLen < 1 || this.minLen > this.maxLen) {
+      throw new IllegalArgumentException("Word lengths must be within 1 to " + MAX_LEN
+          + ", got " + this.minLen + " to " + this.maxLen);
+    }
+    if (this.bucketStart[this.minLen * 27] == this.bucketStart[this.maxLen * 27 + 27]) {
+      throw new IllegalArgumentException("No words of " + this.minLen + " to " + this.maxLen
+          + " letters in the dictionary");
+    }
+    if (this.minX >= this.maxX) {
+      throw new IllegalArgumentException("No room for words between x = " + this.minX
+          + " and " + this.maxX);
+    }
+  }
+
+  //Returns the bucket for words of length 'len' starting with byte 'first'
+  int bucket(int len, int first) {
+    return len * 27 + this.letterIndex(first);
+  }
+
+  //Returns 0-25 for 'a'-'z' and 26 for anything else
+  int letterIndex(int first) {
+    if (first >= 'a' && first <= 'z') {
+      return first - 'a';
+    }
+    return 26;
+  }
+
+  //Returns the length of the line starting at 'start', not counting a trailing '\r',
+  //given that 'end' is the position of its '\n' (or the end of the file)
+  int lineLength(int start, int end) {
+    if (end > start && this.data.get(end - 1) == '\r') {
+      return end - 1 - start;
+    }
+    return end - start;
+  }
+
+  //Counts the words in each bucket, then places every word's offset into its bucket
+  //with a counting sort; the file is scanned twice so no temporary lists are needed
+  void buildIndex() {
+    int limit = this.data.limit();
+    int[] counts = new int[(MAX_LEN + 1) * 27 + 1];
+    int start = 0;
+    for (int i = 0; i <= limit; i++) {
+      if (i == limit || this.data.get(i) == '\n') {
+        int n = this.lineLength(start, i);
+        if (n > 0 && n <= MAX_LEN) {
+          counts[this.bucket(n, this.data.get(start)) + 1]++;
+        }
+        start = i + 1;
+      }
+    }
+    for (int b = 1; b < counts.length; b++) {
+      counts[b] += counts[b - 1];
+    }
+    this.bucketStart = counts.clone();
+    this.offsets = new int[counts[counts.length - 1]];
+    start = 0;
+    for (int i = 0; i <= limit; i++) {
+      if (i == limit || this.data.get(i) == '\n') {
+        int n = this.lineLength(start, i);
+        if (n > 0 && n <= MAX_LEN) {
+          this.offsets[counts[this.bucket(n, this.data.get(start))]++] = start;
+        }
+        start = i + 1;
+      }
+    }
+  }
+
+  //Returns the number of indexed words
+  int size() {
+    return this.offsets.length;
+  }
+
+  //Returns the number of words of length 'len' starting with 'first', which is 0 for
+  //lengths that are never indexed
+  int countOf(int len, char first) {
+    if (len < 1 || len > MAX_LEN) {
+      return 0;
+    }
+    int b = this.bucket(len, first);
+    return this.bucketStart[b + 1] - this.bucketStart[b];
+  }
+
+  //Returns the position in 'offsets' of a random word in the length range
+  //A length is chosen uniformly, so short words don't crowd out long ones, then any
+  //word of that length, every one equally likely whatever its first letter; if there
+  //are none, any word in the length range (checkRanges made sure there is one)
+  int pick() {
+    int len = this.minLen + this.rng.nextInt(this.maxLen - this.minLen + 1);
+    int from = this.bucketStart[len * 27];
+    int to = this.bucketStart[len * 27 + 27];
+    if (from == to) {
+      from = this.bucketStart[this.minLen * 27];
+      to = this.bucketStart[this.maxLen * 27 + 27];
+    }
+    return from + this.rng.nextInt(to - from);
+  }
+
+  //Copies the word at position 'i' of 'offsets' into 'scratch' and returns its length,
+  //which is the length it was indexed under: the whole line, less a trailing '\r'
+  int load(int i) {
+    int start = this.offsets[i];
+    int end = start;
+    while (end < this.data.limit() && this.data.get(end) != '\n') {
+      end++;
+    }
+    int n = this.lineLength(start, end);
+    for (int k = 0; k < n; k++) {
+      this.scratch[k] = (char) (this.data.get(start + k) & 0xFF);
+    }
+    return n;
+  }
+
+  //Returns the word at position 'i' of 'offsets'
+  String wordAt(int i) {
+    return new String(this.scratch, 0, this.load(i));
+  }
+
+  //Adds a random dictionary word to the end of 'store' at height 'y' without allocating,
+  //and returns its slot
+  public int nextInto(IWordStore store, int y) {
+    int i = this.pick();
+    int x = this.minX + this.rng.nextInt(this.maxX - this.minX);
+    return store.add(this.scratch, 0, this.load(i), x, y, false);
+  }
+}
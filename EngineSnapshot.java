@@ -0,0 +1,299 @@
+import java.io.IOException;               // for failures saving or loading a file
+import java.nio.ByteBuffer;               // what snapshots are written to and read from
+import java.nio.channels.FileChannel;     // to write and map snapshot files
+import java.nio.file.Path;                // where a saved game lives
+import java.nio.file.StandardOpenOption;  // to create or read a snapshot file
+
+//Represents the binary snapshot format of a ZTypeEngine, for checkpoints and for
+//suspending and resuming games
+//A snapshot is written straight into a caller's ByteBuffer and read straight out of
+//one (a mapped file, say), with no intermediate arrays or per-word objects, so
+//snapshotting a pool of 100k words takes a few milliseconds
+//
+//Format (big-endian):
+//  header: MAGIC (int), VERSION (short)
+//  engine: seed (long), seeded (byte), ticks (int), over (byte), bottom, spawnY,
+//          fallVelocity, minX, maxX (ints), spawnsPerTick, spawnDebt (doubles),
+//          defaultVelocity (int)
+//  source: GENERATOR (byte) then the generator's rng state (long), minLen, maxLen,
+//          minX, maxX, head, size (ints), its ring's lens and xs (BATCH ints each)
+//          and letters (BATCH * maxLen chars);
+//          or OTHER (byte), when the source has to be supplied on decode
+//  words:  count (int), then per word in list order: x, y, yFrac, vy (ints),
+//          length (short), flags (byte, ACTIVE set for the active word(s)), followed
+//          by every word's remaining letters (chars) in the same order
+//  targeting: PREFIX (byte) if the pool targets words by typed prefix, followed by the
+//          length (short) and letters (chars) of the prefix typed so far; or 0
+class EngineSnapshot {
+  /**
+   * FIELDS:
+   * - none -
+   * METHODS:
+   * - sizeOf(ZTypeEngine) -> int
+   * - encode(ZTypeEngine, ByteBuffer) -> void
+   * - decode(ByteBuffer) -> ZTypeEngine
+   * - decode(ByteBuffer, IWordSource) -> ZTypeEngine
+   * - encodeSource(IWordSource, ByteBuffer) -> void
+   * - decodeSource(ByteBuffer, IWordSource) -> IWordSource
+   * - encodeTargeting(WordTrie, ByteBuffer) -> void
+   * - decodeTargeting(ByteBuffer, WordPool) -> void
+   * - snapshot(ZTypeEngine) -> ByteBuffer
+   * - save(ZTypeEngine, Path) -> void
+   * - load(Path) -> ZTypeEngine
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  static final int MAGIC = 0x5A545353;
+  static final short VERSION = 2;
+  static final byte OTHER = 0;
+  static final byte GENERATOR = 1;
+  static final byte ACTIVE = 1;
+  static final byte PREFIX = 1;
+
+  //bytes in the header, engine, word count and targeting flag; and per word, not
+  //counting its letters
+  static final int FIXED_BYTES = 4 + 2 + 8 + 1 + 4 + 1 + 5 * 4 + 2 * 8 + 4 + 1 + 4 + 1;
+  static final int WORD_BYTES = 4 * 4 + 2 + 1;
+
+  //Returns the exact number of bytes encode will write for 'engine'
+  int sizeOf(ZTypeEngine engine) {
+    WordPool pool = engine.pool;
+    int bytes = FIXED_BYTES + pool.size() * WORD_BYTES;
+    for (int i = 0; i < pool.size(); i++) {
+      bytes += 2 * (pool.len[pool.slotAt(i)] - pool.typed[pool.slotAt(i)]);
+    }
+    if (engine.source instanceof WordGenerator) {
+      WordGenerator generator = (WordGenerator) engine.source;
+      bytes += 8 + 6 * 4 + 2 * WordGenerator.BATCH * 4 + generator.letters.length * 2;
+    }
+    if (pool.trie != null) {
+      bytes += 2 + 2 * pool.trie.depth;
+    }
+    return bytes;
+  }
+
+  //Writes a snapshot of 'engine' at the position of 'out', which must have
+  //sizeOf(engine) bytes remaining
+  void encode(ZTypeEngine engine, ByteBuffer out) {
+    WordPool pool = engine.pool;
+    out.putInt(MAGIC)
+        .putShort(VERSION)
+        .putLong(engine.seed)
+        .put((byte) (engine.seeded ? 1 : 0))
+        .putInt(engine.ticks)
+        .put((byte) (engine.over ? 1 : 0))
+        .putInt(engine.bottom)
+        .putInt(engine.spawnY)
+        .putInt(engine.fallVelocity)
+        .putInt(engine.minX)
+        .putInt(engine.maxX)
+        .putDouble(engine.spawnsPerTick)
+        .putDouble(engine.spawnDebt)
+        .putInt(pool.defaultVelocity);
+    this.encodeSource(engine.source, out);
+    int count = pool.size();
+    out.putInt(count);
+    for (int i = 0; i < count; i++) {
+      int slot = pool.slotAt(i);
+      out.putInt(pool.x[slot])
+          .putInt(pool.y[slot])
+          .putInt(pool.yFrac[slot])
+          .putInt(pool.vy[slot])
+          .putShort((short) (pool.len[slot] - pool.typed[slot]))
+          .put(pool.active[slot] ? ACTIVE : 0);
+    }
+    for (int i = 0; i < count; i++) {
+      int slot = pool.slotAt(i);
+      char[] text = pool.text[slot];
+      for (int k = pool.typed[slot]; k < pool.len[slot]; k++) {
+        out.putChar(text[k]);
+      }
+    }
+    this.encodeTargeting(pool.trie, out);
+  }
+
+  //Writes whether 'trie' is in use and, if so, the prefix typed into it so far
+  //The trie itself is rebuilt from the words on decode; only the prefix is state
+  void encodeTargeting(WordTrie trie, ByteBuffer out) {
+    if (trie == null) {
+      out.put((byte) 0);
+      return;
+    }
+    out.put(PREFIX).putShort((short) trie.depth);
+    char[] prefix = new char[trie.depth];
+    int n = trie.cursor;
+    for (int k = trie.depth - 1; k >= 0; k--) {
+      int l = trie.letterOf[n];
+      //every character but 'a' to 'z' shares the last child, so any such one will do
+      prefix[k] = l < WordTrie.FANOUT - 1 ? (char) ('a' + l) : ' ';
+      n = trie.parent[n];
+    }
+    for (char c : prefix) {
+      out.putChar(c);
+    }
+  }
+
+  //Writes the state of 'source', if it is a generator
+  void encodeSource(IWordSource source, ByteBuffer out) {
+    if (!(source instanceof WordGenerator)) {
+      out.put(OTHER);
+      return;
+    }
+    WordGenerator generator = (WordGenerator) source;
+    out.put(GENERATOR)
+        .putLong(generator.rng.state)
+        .putInt(generator.minLen)
+        .putInt(generator.maxLen)
+        .putInt(generator.minX)
+        .putInt(generator.maxX)
+        .putInt(generator.head)
+        .putInt(generator.size);
+    for (int i = 0; i < WordGenerator.BATCH; i++) {
+      out.putInt(generator.lens[i]);
+    }
+    for (int i = 0; i < WordGenerator.BATCH; i++) {
+      out.putInt(generator.xs[i]);
+    }
+    for (char c : generator.letters) {
+      out.putChar(c);
+    }
+  }
+
+  //Reads a snapshot of an engine whose words come from a generator
+  ZTypeEngine decode(ByteBuffer in) {
+    return this.decode(in, null);
+  }
+
+  //Reads a snapshot at the position of 'in', using 'source' for the new words if the
+  //snapshot does not hold a generator
+  ZTypeEngine decode(ByteBuffer in, IWordSource source) {
+    if (in.remaining() < FIXED_BYTES || in.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a ZType snapshot");
+    }
+    short version = in.getShort();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported snapshot version " + version);
+    }
+    long seed = in.getLong();
+    boolean seeded = in.get() == 1;
+    int ticks = in.getInt();
+    boolean over = in.get() == 1;
+    int bottom = in.getInt();
+    int spawnY = in.getInt();
+    int fallVelocity = in.getInt();
+    int minX = in.getInt();
+    int maxX = in.getInt();
+    double spawnsPerTick = in.getDouble();
+    double spawnDebt = in.getDouble();
+    int defaultVelocity = in.getInt();
+    IWordSource words = this.decodeSource(in, source);
+    int count = in.getInt();
+    WordPool pool = new WordPool(Math.max(count, 4));
+    //the letters follow the table, so they are read through a second view of 'in'
+    ByteBuffer letters = in.duplicate();
+    letters.position(in.position() + count * WORD_BYTES);
+    char[] scratch = new char[16];
+    for (int i = 0; i < count; i++) {
+      int x = in.getInt();
+      int y = in.getInt();
+      int yFrac = in.getInt();
+      int vy = in.getInt();
+      int n = in.getShort();
+      boolean active = (in.get() & ACTIVE) != 0;
+      if (scratch.length < n) {
+        scratch = new char[Math.max(n, scratch.length * 2)];
+      }
+      for (int k = 0; k < n; k++) {
+        scratch[k] = letters.getChar();
+      }
+      int slot = pool.add(scratch, 0, n, x, y, active);
+      pool.yFrac[slot] = yFrac;
+      pool.vy[slot] = vy;
+    }
+    in.position(letters.position());
+    this.decodeTargeting(in, pool);
+    ZTypeEngine engine = new ZTypeEngine(pool, words);
+    engine.seed = seed;
+    engine.seeded = seeded;
+    engine.ticks = ticks;
+    engine.over = over;
+    engine.bottom = bottom;
+    engine.spawnY = spawnY;
+    engine.fallVelocity = fallVelocity;
+    engine.minX = minX;
+    engine.maxX = maxX;
+    engine.spawnsPerTick = spawnsPerTick;
+    engine.spawnDebt = spawnDebt;
+    pool.defaultVelocity = defaultVelocity;
+    return engine;
+  }
+
+  //Reads what encodeTargeting wrote, turning on prefix targeting in 'pool' and typing
+  //the saved prefix into it
+  void decodeTargeting(ByteBuffer in, WordPool pool) {
+    if (in.get() != PREFIX) {
+      return;
+    }
+    pool.usePrefixTargeting();
+    int depth = in.getShort();
+    for (int k = 0; k < depth; k++) {
+      pool.trie.step(in.getChar());
+    }
+  }
+
+  //Reads the source written by encodeSource, or returns 'source' if none was written
+  IWordSource decodeSource(ByteBuffer in, IWordSource source) {
+    byte kind = in.get();
+    if (kind == OTHER) {
+      if (source == null) {
+        throw new IllegalArgumentException("Snapshot needs a word source to resume");
+      }
+      return source;
+    }
+    long state = in.getLong();
+    WordGenerator generator = new WordGenerator(state, in.getInt(), in.getInt(),
+        in.getInt(), in.getInt());
+    generator.head = in.getInt();
+    generator.size = in.getInt();
+    for (int i = 0; i < WordGenerator.BATCH; i++) {
+      generator.lens[i] = in.getInt();
+    }
+    for (int i = 0; i < WordGenerator.BATCH; i++) {
+      generator.xs[i] = in.getInt();
+    }
+    for (int i = 0; i < generator.letters.length; i++) {
+      generator.letters[i] = in.getChar();
+    }
+    return generator;
+  }
+
+  //Returns a snapshot of 'engine' in a heap buffer of exactly the right size, ready
+  //to be read
+  ByteBuffer snapshot(ZTypeEngine engine) {
+    ByteBuffer buffer = ByteBuffer.allocate(this.sizeOf(engine));
+    this.encode(engine, buffer);
+    buffer.flip();
+    return buffer;
+  }
+
+  //Suspends 'engine' to 'file', replacing any file there
+  void save(ZTypeEngine engine, Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(this.sizeOf(engine));
+    this.encode(engine, buffer);
+    buffer.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  //Resumes the game saved in 'file', reading it straight from a mapping of the file
+  ZTypeEngine load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return this.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+}
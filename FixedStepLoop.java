@@ -0,0 +1,104 @@
+import java.util.function.LongSupplier; // the clock, so tests can drive time by hand
+
+//Represents a fixed-timestep driver for a ZTypeEngine
+//Real time is added to an accumulator and the engine is ticked once for every whole
+//step it holds, so the simulation runs at the same rate however often it is called;
+//what is left over, as a fraction of a step, is the 'alpha' a renderer interpolates by
+//Tick, frame and key input durations are kept in histograms, summarized by report()
+class FixedStepLoop {
+  /**
+   * FIELDS:
+   * - engine -> ZTypeEngine
+   * - clock -> LongSupplier
+   * - stepNanos -> long
+   * - maxFrameNanos -> long
+   * - last -> long
+   * - accumulator -> long
+   * - alpha -> double
+   * - tickTimes -> LatencyHistogram
+   * - frameTimes -> LatencyHistogram
+   * - inputTimes -> LatencyHistogram
+   * METHODS:
+   * - advance() -> int
+   * - recordFrame(long) -> void
+   * - recordInput(long) -> void
+   * - report() -> String
+   * METHODS ON FIELDS:
+   * - engine.tick() -> boolean
+   * - engine.isOver() -> boolean
+   * - tickTimes.record(long) -> void
+   * - frameTimes.record(long) -> void
+   * - inputTimes.record(long) -> void
+   */
+
+  ZTypeEngine engine;
+  LongSupplier clock;
+
+  //the length of one engine tick, and the most real time one call may simulate, so a
+  //long pause does not make the game run hundreds of ticks to catch up
+  long stepNanos;
+  long maxFrameNanos;
+
+  //the clock when last advanced, the real time not yet simulated, and that time as a
+  //fraction of a step
+  long last;
+  long accumulator;
+  double alpha;
+
+  LatencyHistogram tickTimes;
+  LatencyHistogram frameTimes;
+  //how long key presses waited between being queued and reaching the engine
+  LatencyHistogram inputTimes;
+
+  FixedStepLoop(ZTypeEngine engine, double ticksPerSecond, LongSupplier clock) {
+    this.engine = engine;
+    this.clock = clock;
+    this.stepNanos = Math.max(1, Math.round(1e9 / ticksPerSecond));
+    this.maxFrameNanos = Math.max(this.stepNanos, 250_000_000L);
+    this.last = clock.getAsLong();
+    this.accumulator = 0;
+    this.alpha = 0;
+    this.tickTimes = new LatencyHistogram("tick");
+    this.frameTimes = new LatencyHistogram("frame");
+    this.inputTimes = new LatencyHistogram("input");
+  }
+
+  //Makes a loop that ticks 'engine' 'ticksPerSecond' times a second of wall-clock time
+  FixedStepLoop(ZTypeEngine engine, double ticksPerSecond) {
+    this(engine, ticksPerSecond, System::nanoTime);
+  }
+
+  //Ticks the engine once for every whole step of real time since the last call, and
+  //returns how many ticks ran
+  int advance() {
+    long now = this.clock.getAsLong();
+    this.accumulator += Math.min(now - this.last, this.maxFrameNanos);
+    this.last = now;
+    int ticks = 0;
+    while (this.accumulator >= this.stepNanos && !this.engine.isOver()) {
+      long start = System.nanoTime();
+      this.engine.tick();
+      this.tickTimes.record(System.nanoTime() - start);
+      this.accumulator -= this.stepNanos;
+      ticks++;
+    }
+    this.alpha = Math.min(1, (double) this.accumulator / this.stepNanos);
+    return ticks;
+  }
+
+  //Counts one frame that took 'nanos' to draw
+  void recordFrame(long nanos) {
+    this.frameTimes.record(nanos);
+  }
+
+  //Counts one key press that waited 'nanos' to be applied
+  void recordInput(long nanos) {
+    this.inputTimes.record(nanos);
+  }
+
+  //Returns the tick, frame and input time reports, one per line
+  String report() {
+    return this.tickTimes.summary() + "\n" + this.frameTimes.summary() + "\n"
+        + this.inputTimes.summary();
+  }
+}
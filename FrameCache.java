@@ -0,0 +1,142 @@
+import javalib.worldimages.*;   // images, like TextImage
+import javalib.funworld.*;      // WorldScene
+import java.awt.Color;          // active words are green, inactive ones red
+import java.util.Arrays;        // for growing the cached images
+
+//Represents the drawing of a WordPool, with the images and frame it last drew cached
+//Each word keeps the image it was last drawn with until its letters, activity or slot
+//change, and a frame in which no word changed and the scene and alpha are the same
+//reuses the previous frame outright
+//This is not retained-mode drawing: WorldScene can only have images placed on top of
+//it, so any other frame is composed from scratch by placing every word, and what the
+//cache saves is building their images; a game drawing between ticks changes alpha
+//every frame, so for it only the image cache applies
+//Words can be drawn part of the way between their last two positions (see compose),
+//which lets a fixed-timestep game render smoothly between ticks
+class FrameCache {
+  /**
+   * FIELDS:
+   * - pool -> WordPool
+   * - images -> WorldImage[]
+   * - imageGeneration -> int[]
+   * - imageTyped -> int[]
+   * - imageActive -> boolean[]
+   * - base -> WorldScene
+   * - last -> WorldScene
+   * - lastChanges -> int
+   * - lastAlpha -> double
+   * - dirtyWords -> int
+   * METHODS:
+   * - compose(WorldScene) -> WorldScene
+   * - compose(WorldScene, double) -> WorldScene
+   * - drawY(int, double) -> int
+   * - imageFor(int) -> WorldImage
+   * - ensureCapacity() -> void
+   * METHODS ON FIELDS:
+   * - pool.size() -> int
+   * - pool.slotAt(int) -> int
+   * - pool.endFrame() -> int
+   */
+
+  WordPool pool;
+
+  //the image each slot was last drawn with, and the state it was drawn in
+  WorldImage[] images;
+  int[] imageGeneration;
+  int[] imageTyped;
+  boolean[] imageActive;
+
+  //the scene the last frame was drawn onto, and the result
+  WorldScene base;
+  WorldScene last;
+  int lastChanges;
+  double lastAlpha;
+
+  //how many words moved, changed or were removed in the last composed frame
+  int dirtyWords;
+
+  FrameCache(WordPool pool) {
+    this.pool = pool;
+    this.images = new WorldImage[0];
+    this.imageGeneration = new int[0];
+    this.imageTyped = new int[0];
+    this.imageActive = new boolean[0];
+    this.base = null;
+    this.last = null;
+    this.lastChanges = 0;
+    this.lastAlpha = 1;
+    this.dirtyWords = 0;
+  }
+
+  //Draws every word of the pool onto 'scene', reusing the previous result when the
+  //scene and every word are unchanged
+  WorldScene compose(WorldScene scene) {
+    return this.compose(scene, 1);
+  }
+
+  //Draws every word of the pool onto 'scene' 'alpha' of the way from where it was one
+  //step ago to where it is now (0 <= alpha <= 1), reusing the previous result when the
+  //scene, alpha and every word are unchanged
+  WorldScene compose(WorldScene scene, double alpha) {
+    if (scene == this.base && this.last != null && this.pool.changes == this.lastChanges
+        && alpha == this.lastAlpha) {
+      this.dirtyWords = 0;
+      return this.last;
+    }
+    this.ensureCapacity();
+    int dirty = 0;
+    WorldScene result = scene;
+    for (int i = 0; i < this.pool.size(); i++) {
+      int slot = this.pool.slotAt(i);
+      if (this.pool.changedIn[slot] == this.pool.frame) {
+        dirty++;
+      }
+      result = result.placeImageXY(this.imageFor(slot), this.pool.x[slot],
+          this.drawY(slot, alpha));
+    }
+    this.dirtyWords = dirty + this.pool.endFrame();
+    this.base = scene;
+    this.last = result;
+    this.lastChanges = this.pool.changes;
+    this.lastAlpha = alpha;
+    return result;
+  }
+
+  //Returns the height to draw the word in 'slot' at: a word moves by its velocity each
+  //step, so one step ago it was a whole velocity higher
+  int drawY(int slot, double alpha) {
+    if (alpha >= 1) {
+      return this.pool.y[slot];
+    }
+    double behind = (1 - alpha) * this.pool.vy[slot];
+    return this.pool.y[slot]
+        + (int) Math.floor((this.pool.yFrac[slot] - behind) / WordPool.FIXED_ONE);
+  }
+
+  //Returns the cached image of the word in 'slot', replacing it if the word changed
+  WorldImage imageFor(int slot) {
+    if (this.images[slot] == null
+        || this.imageGeneration[slot] != this.pool.generation[slot]
+        || this.imageTyped[slot] != this.pool.typed[slot]
+        || this.imageActive[slot] != this.pool.active[slot]) {
+      Color color = this.pool.active[slot] ? Color.GREEN : Color.RED;
+      this.images[slot] = TextImageCache.SHARED.get(this.pool.text[slot],
+          this.pool.typed[slot], this.pool.len[slot], 35, color);
+      this.imageGeneration[slot] = this.pool.generation[slot];
+      this.imageTyped[slot] = this.pool.typed[slot];
+      this.imageActive[slot] = this.pool.active[slot];
+    }
+    return this.images[slot];
+  }
+
+  //Grows the cached arrays to match the pool's capacity
+  void ensureCapacity() {
+    int cap = this.pool.x.length;
+    if (this.images.length < cap) {
+      this.images = Arrays.copyOf(this.images, cap);
+      this.imageGeneration = Arrays.copyOf(this.imageGeneration, cap);
+      this.imageTyped = Arrays.copyOf(this.imageTyped, cap);
+      this.imageActive = Arrays.copyOf(this.imageActive, cap);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+//Represents the difficulty settings of a simulated game
+class GameConfig {
+  /**
+   * FIELDS:
+   * - ticksPerSecond -> double
+   * - pixelsPerTick -> double
+   * - spawnsPerTick -> double
+   * - minLen -> int
+   * - maxLen -> int
+   * - bottom -> int
+   * - dictionary -> DictionaryWordSource
+   * - offHeap -> boolean
+   * METHODS:
+   * - newEngine(long) -> ZTypeEngine
+   * - toString() -> String
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  //how many ticks make a second of play, for reporting rates per second
+  double ticksPerSecond;
+  double pixelsPerTick;
+  double spawnsPerTick;
+  //new words have 'minLen' to 'maxLen' letters
+  int minLen;
+  int maxLen;
+  //a word at or below 'bottom' ends the game
+  int bottom;
+  //where words are drawn from, or null to generate them
+  DictionaryWordSource dictionary;
+  //whether games keep their words in an OffHeapLoWord instead of a WordPool, which
+  //holds words of at most OffHeapLoWord.MAX_LETTERS letters
+  boolean offHeap;
+
+  GameConfig(double ticksPerSecond, double pixelsPerTick, double spawnsPerTick,
+      int minLen, int maxLen, int bottom) {
+    this.ticksPerSecond = ticksPerSecond;
+    this.pixelsPerTick = pixelsPerTick;
+    this.spawnsPerTick = spawnsPerTick;
+    this.minLen = minLen;
+    this.maxLen = maxLen;
+    this.bottom = bottom;
+    this.dictionary = null;
+    this.offHeap = false;
+  }
+
+  //Makes ZType's own settings: a tick a second, 25 pixels and one 3 to 8 letter word a
+  //tick, and the bottom at 600
+  GameConfig() {
+    this(1, 25, 1, 3, 8, 600);
+  }
+
+  //Returns a new game with these settings whose words come from 'seed', drawn from the
+  //dictionary if there is one, and are kept off the heap if 'offHeap'
+  ZTypeEngine newEngine(long seed) {
+    IWordSource words = this.dictionary == null
+        ? new WordGenerator(seed, this.minLen, this.maxLen, 60, 550)
+        : new DictionaryWordSource(this.dictionary, seed, this.minLen, this.maxLen, 60, 550);
+    ZTypeEngine engine;
+    if (this.offHeap) {
+      engine = new ZTypeEngine(new OffHeapLoWord(64), words);
+    }
+    else {
+      engine = new ZTypeEngine(new WordPool(64), words);
+      engine.pool.reserve(64, this.maxLen);
+    }
+    engine.configure(this.ticksPerSecond, this.pixelsPerTick * this.ticksPerSecond,
+        this.spawnsPerTick * this.ticksPerSecond);
+    engine.bottom = this.bottom;
+    return engine;
+  }
+
+  public String toString() {
+    return String.format("fall=%.1fpx spawn=%.2f len=%d-%d bottom=%d%s%s",
+        this.pixelsPerTick, this.spawnsPerTick, this.minLen, this.maxLen, this.bottom,
+        this.dictionary == null ? "" : " dictionary", this.offHeap ? " off-heap" : "");
+  }
+}
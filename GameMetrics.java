@@ -0,0 +1,258 @@
+import java.io.PrintStream;                              // where the periodic dump goes
+import java.lang.management.GarbageCollectorMXBean;      // GC counts, to set beside hitches
+import java.lang.management.ManagementFactory;           // the platform MX beans
+import java.util.concurrent.Executors;                   // the dump thread
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;        // numbers each game's MBean
+import javax.management.JMException;                     // for failures registering
+import javax.management.ObjectName;                      // the name the game is published under
+
+//Represents the runtime metrics of one game, gathered by ZTypeWorld's callbacks and
+//read over JMX or a periodic text dump
+//The game thread only bumps counters, copies a few gauges and reads its own allocation
+//counter, so gathering allocates nothing; readers on other threads see the latest
+//values through volatile fields, and the histograms (kept by the FixedStepLoop) are
+//read without locking, so a percentile may be off by the ticks recorded while reading
+class GameMetrics implements GameMetricsMBean {
+  /**
+   * FIELDS:
+   * - engine -> ZTypeEngine
+   * - loop -> FixedStepLoop
+   * - threads -> com.sun.management.ThreadMXBean
+   * - startNanos -> long
+   * - ticks -> long
+   * - keystrokes -> long
+   * - liveWords -> int
+   * - activeWords -> int
+   * - spawned -> long
+   * - destroyed -> long
+   * - poolCapacity -> int
+   * - poolMissRate -> double
+   * - allocated -> long
+   * - maxAllocated -> long
+   * - allocationMark -> long
+   * - name -> ObjectName
+   * - dumper -> ScheduledExecutorService
+   * METHODS:
+   * - beforeTick() -> void
+   * - afterTick() -> void
+   * - keystroke() -> void
+   * - register() -> GameMetrics
+   * - unregister() -> void
+   * - dumpEvery(long, PrintStream) -> GameMetrics
+   * - stopDumping() -> void
+   * - gcSummary() -> String
+   * - the getters of GameMetricsMBean
+   * METHODS ON FIELDS:
+   * - threads.getCurrentThreadAllocatedBytes() -> long
+   * - loop.tickTimes.percentile(double) -> long
+   * - loop.frameTimes.percentile(double) -> long
+   * - loop.inputTimes.percentile(double) -> long
+   */
+
+  static final AtomicInteger GAMES = new AtomicInteger();
+
+  ZTypeEngine engine;
+  FixedStepLoop loop;
+  //the game thread's allocation counter, or null if this JVM does not keep one
+  com.sun.management.ThreadMXBean threads;
+  long startNanos;
+
+  //written only by the game thread
+  volatile long ticks;
+  volatile long keystrokes;
+  volatile int liveWords;
+  volatile int activeWords;
+  volatile long spawned;
+  volatile long destroyed;
+  //the word pool's capacity, and the fraction of its claims that had to allocate
+  volatile int poolCapacity;
+  volatile double poolMissRate;
+  //bytes allocated during onTick in total and in the worst call, and the counter's
+  //value when the current call began
+  volatile long allocated;
+  volatile long maxAllocated;
+  long allocationMark;
+
+  ObjectName name;
+  ScheduledExecutorService dumper;
+
+  GameMetrics(ZTypeEngine engine, FixedStepLoop loop) {
+    this.engine = engine;
+    this.loop = loop;
+    this.threads = null;
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean bean =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+        this.threads = bean;
+      }
+    }
+    this.startNanos = System.nanoTime();
+    try {
+      this.name = new ObjectName("ZType:type=GameMetrics,game=" + GAMES.incrementAndGet());
+    }
+    catch (JMException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  //Marks the start of onTick
+  void beforeTick() {
+    if (this.threads != null) {
+      this.allocationMark = this.threads.getCurrentThreadAllocatedBytes();
+    }
+  }
+
+  //Marks the end of onTick, copying the engine's counts
+  void afterTick() {
+    if (this.threads != null) {
+      long bytes = this.threads.getCurrentThreadAllocatedBytes() - this.allocationMark;
+      this.allocated += bytes;
+      if (bytes > this.maxAllocated) {
+        this.maxAllocated = bytes;
+      }
+    }
+    WordPool pool = this.engine.pool;
+    this.ticks = this.engine.ticks;
+    this.liveWords = pool.size();
+    this.activeWords = pool.activeCount;
+    this.spawned = pool.added;
+    this.destroyed = pool.released;
+    this.poolCapacity = pool.capacity();
+    this.poolMissRate = pool.missRate();
+  }
+
+  //Counts one key press
+  void keystroke() {
+    this.keystrokes++;
+  }
+
+  //Publishes these metrics on the platform MBean server, and returns them
+  GameMetrics register() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, this.name);
+    return this;
+  }
+
+  //Withdraws these metrics from the platform MBean server, if they were published
+  void unregister() throws JMException {
+    if (ManagementFactory.getPlatformMBeanServer().isRegistered(this.name)) {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+    }
+  }
+
+  //Prints the summary to 'out' every 'millis' milliseconds, from a daemon thread, and
+  //returns these metrics
+  GameMetrics dumpEvery(long millis, PrintStream out) {
+    this.stopDumping();
+    this.dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "ztype-metrics");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.dumper.scheduleAtFixedRate(() -> out.println(this.getSummary()), millis, millis,
+        TimeUnit.MILLISECONDS);
+    return this;
+  }
+
+  //Stops the periodic dump, if there is one
+  void stopDumping() {
+    if (this.dumper != null) {
+      this.dumper.shutdownNow();
+      this.dumper = null;
+    }
+  }
+
+  //Returns the collections and total collection time of every collector so far
+  String gcSummary() {
+    long count = 0;
+    long millis = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+      millis += Math.max(0, gc.getCollectionTime());
+    }
+    return count + " gcs/" + millis + "ms";
+  }
+
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  public long getKeystrokes() {
+    return this.keystrokes;
+  }
+
+  public int getLiveWords() {
+    return this.liveWords;
+  }
+
+  public int getActiveWords() {
+    return this.activeWords;
+  }
+
+  public long getWordsSpawned() {
+    return this.spawned;
+  }
+
+  public long getWordsDestroyed() {
+    return this.destroyed;
+  }
+
+  public int getPoolCapacity() {
+    return this.poolCapacity;
+  }
+
+  public double getPoolMissRate() {
+    return this.poolMissRate;
+  }
+
+  public double getWordsPerSecond() {
+    double seconds = (System.nanoTime() - this.startNanos) / 1e9;
+    return seconds <= 0 ? 0 : this.destroyed / seconds;
+  }
+
+  public double getTickP50Millis() {
+    return this.loop.tickTimes.percentile(0.50) / 1e6;
+  }
+
+  public double getTickP99Millis() {
+    return this.loop.tickTimes.percentile(0.99) / 1e6;
+  }
+
+  public double getTickMaxMillis() {
+    return this.loop.tickTimes.max / 1e6;
+  }
+
+  public double getFrameP99Millis() {
+    return this.loop.frameTimes.percentile(0.99) / 1e6;
+  }
+
+  public double getKeystrokeP99Millis() {
+    return this.loop.inputTimes.percentile(0.99) / 1e6;
+  }
+
+  public long getAllocatedBytesPerTick() {
+    if (this.threads == null) {
+      return -1;
+    }
+    return this.ticks == 0 ? 0 : this.allocated / this.ticks;
+  }
+
+  public long getMaxAllocatedBytesPerTick() {
+    return this.threads == null ? -1 : this.maxAllocated;
+  }
+
+  public String getSummary() {
+    return String.format("ticks=%d words=%d active=%d spawned=%d destroyed=%d (%.2f/s) "
+        + "pool=%d miss=%.2f%% keys=%d tick p50=%.3fms p99=%.3fms max=%.3fms frame p99=%.3fms "
+        + "key p99=%.3fms alloc/tick=%dB max=%dB %s",
+        this.getTicks(), this.getLiveWords(), this.getActiveWords(),
+        this.getWordsSpawned(), this.getWordsDestroyed(), this.getWordsPerSecond(),
+        this.getPoolCapacity(), this.getPoolMissRate() * 100, this.getKeystrokes(),
+        this.getTickP50Millis(), this.getTickP99Millis(), this.getTickMaxMillis(),
+        this.getFrameP99Millis(), this.getKeystrokeP99Millis(),
+        this.getAllocatedBytesPerTick(), this.getMaxAllocatedBytesPerTick(),
+        this.gcSummary());
+  }
+}
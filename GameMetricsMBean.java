@@ -0,0 +1,58 @@
+//Represents the attributes of a running game published over JMX (see GameMetrics)
+//JMX only accepts public MBean interfaces, so unlike the rest of the game this one is
+//public
+public interface GameMetricsMBean {
+
+  //Returns the ticks the game has run
+  long getTicks();
+
+  //Returns the key presses received
+  long getKeystrokes();
+
+  //Returns the words on screen as of the last tick
+  int getLiveWords();
+
+  //Returns the active words on screen as of the last tick
+  int getActiveWords();
+
+  //Returns the words spawned so far
+  long getWordsSpawned();
+
+  //Returns the words destroyed (typed out) so far
+  long getWordsDestroyed();
+
+  //Returns how many words the word pool can hold before it grows
+  int getPoolCapacity();
+
+  //Returns the fraction of word pool claims that had to allocate
+  double getPoolMissRate();
+
+  //Returns the words destroyed per second of wall-clock time since the game started
+  double getWordsPerSecond();
+
+  //Returns the median time taken by one engine tick
+  double getTickP50Millis();
+
+  //Returns the 99th percentile time taken by one engine tick
+  double getTickP99Millis();
+
+  //Returns the longest time taken by one engine tick
+  double getTickMaxMillis();
+
+  //Returns the 99th percentile time to draw a frame
+  double getFrameP99Millis();
+
+  //Returns the 99th percentile time from a key press to its reducing the words
+  double getKeystrokeP99Millis();
+
+  //Returns the average bytes allocated on the game thread per tick, or -1 if the JVM
+  //cannot measure them
+  long getAllocatedBytesPerTick();
+
+  //Returns the most bytes allocated on the game thread by one call to onTick, or -1 if
+  //the JVM cannot measure them
+  long getMaxAllocatedBytesPerTick();
+
+  //Returns every attribute on one line, as the periodic dump prints it
+  String getSummary();
+}
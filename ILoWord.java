@@ -0,0 +1,51 @@
+import javalib.funworld.*;      // WorldScene
+
+//Represents a list of words
+interface ILoWord {
+  //Removes the first letter from an active word in the list that starts with 'letter'
+  ILoWord checkAndReduce(String letter);
+  
+  //Adds the given IWord 'word' to the end of the list
+  ILoWord addToEnd(IWord word);
+  
+  //Gets rid of any empty-string words in the list
+  ILoWord filterOutEmpties();
+  
+  //Moves all words towards the bottom of the screen
+  ILoWord move();
+  
+  //Draws all the words in the list in their specific locations
+  WorldScene draw(WorldScene scene);
+  
+  //Checks if any of the words have reached the bottom of the screen
+  boolean touchBottom(int height);
+  
+  //Finds first occurrence of a word starting with 'letter' and makes it active
+  ILoWord activateWord(String letter);
+  
+  //Checks if there are any active words in the list
+  boolean hasActive();
+  
+  //Returns the same words as a list of ConsLoWord cells, for comparing against
+  //the reference implementation
+  ILoWord toConsList();
+  
+  //Runs one game tick in a single traversal: reports whether any word has passed
+  //'height', drops empty words, moves the rest down and appends the moved 'spawn'
+  //The game itself ticks a ZTypeEngine, whose IWordStore.step is the same fused pass
+  //over its store, so this is for ticking a list on its own, as the tests and
+  //benchmarks do
+  TickResult tick(IWord spawn, int height);
+  
+  //Handles one key press in a single traversal: reduces the active words that start
+  //with 'letter', or if there are none, activates and reduces the first word that does
+  //The game itself types into a ZTypeEngine, through IWordStore.type and typeAll
+  ILoWord type(String letter);
+  
+  //Types 'letter' into the list; 'anyActive' is true once an active word is known
+  //to exist, in which case no new word may be activated
+  ILoWord typeAcc(String letter, boolean anyActive);
+  
+  //Adds every word of this list, in order, to the end of 'pool'
+  void addAllTo(WordPool pool);
+}
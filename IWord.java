@@ -0,0 +1,41 @@
+import javalib.funworld.*;      // WorldScene
+
+//Represents a word
+interface IWord {
+  
+  //Returns true if the first letter of the word matches 's'
+  boolean matches(String s);
+  
+  //Returns true if the first letter of the word is 'c'
+  boolean matches(char c);
+  
+  //Removes the first letter from the word
+  IWord reduce();
+  
+  //Returns whether this IWord is an empty string
+  boolean isEmpty();
+  
+  //Draws this word in it's place on 'scene'
+  WorldScene drawWord(WorldScene scene);
+  
+  //Moves the word toward the bottom of the screen on each tick
+  IWord moveWord();
+  
+  //Moves the word 'dy' pixels toward the bottom of the screen (up if 'dy' is negative)
+  IWord moveWordBy(int dy);
+  
+  //Returns the y coordinate of the word
+  int yCoord();
+  
+  //To check if this word causes the game to end
+  boolean touchesBottom(int height);
+  
+  //Either converts an IWord to active, or returns the already active word
+  IWord makeActive();
+  
+  //Returns active status of an IWord
+  boolean isActive();
+  
+  //Appends this word's text, position and active status to the end of 'pool'
+  void addToPool(WordPool pool);
+}
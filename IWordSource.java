@@ -0,0 +1,6 @@
+//Represents a supply of words for the game to spawn
+interface IWordSource {
+  
+  //Adds the next word to the end of 'store' at height 'y' and returns its slot
+  int nextInto(IWordStore store, int y);
+}
@@ -0,0 +1,60 @@
+//Represents the mutable storage a ZTypeEngine keeps its words in
+//A word is named by a slot, which stays valid until the next step()
+interface IWordStore {
+
+  //Adds a word to the end of the store and returns its slot
+  int add(String word, int x, int y, boolean active);
+
+  //Adds the letters 'chars[from..to)' to the end of the store and returns their slot
+  int add(char[] chars, int from, int to, int x, int y, boolean active);
+
+  //Sets the velocity, in 1/WordPool.FIXED_ONE of a pixel per step, given to words as
+  //they are added
+  void setDefaultVelocity(int velocity);
+
+  //Runs one fixed-timestep step: frees empty words and moves the rest by their own
+  //velocity
+  void step();
+
+  //Moves the word in 'slot' by one step of its velocity
+  void stepSlot(int slot);
+
+  //Returns true if any word is at or past 'height'
+  boolean anyPast(int height);
+
+  //Moves the word in 'slot' to the nearest x in 'minX..maxX' where it overlaps no other
+  //word, and returns false, leaving it where it was, if none is found
+  boolean placeClear(int slot, int minX, int maxX);
+
+  //Handles one key press: reduces the active words starting with 'c', or if there is no
+  //active word (and 'anyActive' is false), activates and reduces the first word starting
+  //with 'c'
+  void type(char c, boolean anyActive);
+
+  //Handles one key press like type(c, false), and returns what it did (see WordPool.MISS)
+  int typeKey(char c);
+
+  //Handles the first 'n' key presses in 'keys' in order, as type(c, false) on each would
+  void typeAll(char[] keys, int n);
+
+  //Targets words by the prefix typed so far from now on (see WordPool.typeByPrefix)
+  void usePrefixTargeting();
+
+  //Returns the number of live words
+  int size();
+
+  //Returns true if any word is active
+  boolean hasActive();
+
+  //Returns the slot of the active word, or -1 if there is none or more than one
+  int onlyActive();
+
+  //Has every letter of the word in 'slot' been typed?
+  boolean isEmpty(int slot);
+
+  //Returns the next letter to type of the word in 'slot', which must not be empty
+  char nextLetter(int slot);
+
+  //Returns the slot of the word nearest the bottom, or -1 if there are no words
+  int lowest();
+}
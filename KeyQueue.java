@@ -0,0 +1,100 @@
+import java.util.concurrent.atomic.AtomicLong;      // the producers' claim counter
+import java.util.concurrent.atomic.AtomicLongArray; // one sequence number per cell
+
+//Represents a bounded queue of key presses from any number of input threads to the one
+//simulation thread, as a ring of primitive cells with no locks (a Vyukov-style MPSC ring)
+//A producer claims a cell by advancing 'tail' with a compare-and-set, writes the key
+//and its timestamp, then publishes the cell by setting its sequence number; the
+//consumer takes published cells in order and hands each back by advancing its sequence
+//a lap ahead, so neither side ever waits on the other
+class KeyQueue {
+  /**
+   * FIELDS:
+   * - mask -> int
+   * - keys -> char[]
+   * - stamps -> long[]
+   * - sequence -> AtomicLongArray
+   * - tail -> AtomicLong
+   * - head -> long
+   * METHODS:
+   * - offer(char, long) -> boolean
+   * - drain(char[], long[]) -> int
+   * - isEmpty() -> boolean
+   * METHODS ON FIELDS:
+   * - sequence.get(int) -> long
+   * - sequence.set(int, long) -> void
+   * - tail.compareAndSet(long, long) -> boolean
+   */
+
+  int mask;
+  char[] keys;
+  //when each key was pressed, in System.nanoTime
+  long[] stamps;
+  //cell i holds a key for the consumer when its sequence is one past the claim that
+  //wrote it, and is free for claim c when its sequence is c
+  AtomicLongArray sequence;
+  //the next claim for producers; the next claim to take, read only by the consumer
+  AtomicLong tail;
+  long head;
+
+  //Makes a queue with room for 'capacity' keys, rounded up to a power of two
+  KeyQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.mask = size - 1;
+    this.keys = new char[size];
+    this.stamps = new long[size];
+    this.sequence = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      this.sequence.set(i, i);
+    }
+    this.tail = new AtomicLong();
+    this.head = 0;
+  }
+
+  //Adds key 'c', pressed at 'stamp'; safe from any thread
+  //Returns false, adding nothing, if the queue is full
+  boolean offer(char c, long stamp) {
+    while (true) {
+      long claim = this.tail.get();
+      int cell = (int) claim & this.mask;
+      long seq = this.sequence.get(cell);
+      if (seq == claim) {
+        if (this.tail.compareAndSet(claim, claim + 1)) {
+          this.keys[cell] = c;
+          this.stamps[cell] = stamp;
+          this.sequence.set(cell, claim + 1);
+          return true;
+        }
+      }
+      else if (seq < claim) {
+        //the cell still holds a key from the last lap
+        return false;
+      }
+      //otherwise another producer took this claim first; try the next
+    }
+  }
+
+  //Moves every published key, up to the room in 'into', into 'into' and their stamps
+  //into 'stampsInto', oldest first, and returns how many were moved
+  //Only the simulation thread may drain
+  int drain(char[] into, long[] stampsInto) {
+    int n = 0;
+    while (n < into.length) {
+      int cell = (int) this.head & this.mask;
+      if (this.sequence.get(cell) != this.head + 1) {
+        break;
+      }
+      into[n] = this.keys[cell];
+      stampsInto[n] = this.stamps[cell];
+      n++;
+      this.sequence.set(cell, this.head + this.mask + 1);
+      this.head++;
+    }
+    return n;
+  }
+
+  //Returns true if no key is waiting for the consumer
+  boolean isEmpty() {
+    return this.sequence.get((int) this.head & this.mask) != this.head + 1;
+  }
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays; // for clearing the counts
+
+//Represents a histogram of durations in nanoseconds, for reporting percentiles
+//Buckets are log-linear: every power of two is split into SUB equal buckets, so any
+//recorded value is reported within 1/SUB of its true value, and recording is a few
+//shifts and an increment with no allocation
+class LatencyHistogram {
+  /**
+   * FIELDS:
+   * - name -> String
+   * - counts -> long[]
+   * - total -> long
+   * - max -> long
+   * METHODS:
+   * - record(long) -> void
+   * - index(long) -> int
+   * - lowerBound(int) -> long
+   * - percentile(double) -> long
+   * - reset() -> void
+   * - summary() -> String
+   * METHODS ON FIELDS:
+   * - none
+   */
+
+  //buckets per power of two (a power of two itself)
+  static final int SUB = 16;
+  static final int SUB_BITS = 4;
+
+  String name;
+  long[] counts;
+  long total;
+  long max;
+
+  LatencyHistogram(String name) {
+    this.name = name;
+    this.counts = new long[64 * SUB];
+    this.total = 0;
+    this.max = 0;
+  }
+
+  //Counts one duration of 'nanos' (negative durations count as 0)
+  void record(long nanos) {
+    long v = Math.max(0, nanos);
+    this.counts[this.index(v)]++;
+    this.total++;
+    this.max = Math.max(this.max, v);
+  }
+
+  //Returns the bucket of the non-negative value 'v'
+  int index(long v) {
+    if (v < SUB) {
+      return (int) v;
+    }
+    int exp = 63 - Long.numberOfLeadingZeros(v);
+    int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+    return (exp - SUB_BITS + 1) * SUB + sub;
+  }
+
+  //Returns the smallest value that falls in bucket 'index'
+  long lowerBound(int index) {
+    if (index < SUB) {
+      return index;
+    }
+    int exp = index / SUB + SUB_BITS - 1;
+    return (long) (SUB + index % SUB) << (exp - SUB_BITS);
+  }
+
+  //Returns the largest value in the bucket holding the 'p'th fraction of the recorded
+  //values (0 < p <= 1), capped at the largest value recorded, or 0 if nothing was
+  long percentile(double p) {
+    long target = Math.max(1, (long) Math.ceil(p * this.total));
+    long seen = 0;
+    for (int i = 0; i < this.counts.length; i++) {
+      seen += this.counts[i];
+      if (seen >= target) {
+        return Math.min(this.max, this.lowerBound(i + 1) - 1);
+      }
+    }
+    return 0;
+  }
+
+  //Forgets everything recorded
+  void reset() {
+    Arrays.fill(this.counts, 0);
+    this.total = 0;
+    this.max = 0;
+  }
+
+  //Returns a one-line report of the count, p50, p99 and max in milliseconds
+  String summary() {
+    return String.format("%s: n=%d p50=%.3fms p99=%.3fms max=%.3fms", this.name, this.total,
+        this.percentile(0.50) / 1e6, this.percentile(0.99) / 1e6, this.max / 1e6);
+  }
+}
@@ -0,0 +1,117 @@
+import javalib.funworld.*;      // WorldScene
+
+//Represents an empty list of words
+class MtLoWord implements ILoWord {
+  /**
+   * FIELDS:
+   * - none -
+   * METHODS:
+   * - checkAndReduce(String) -> ILoWord
+   * - addToEnd(IWord) -> ILoWord
+   * - filterOutEmpties() -> ILoWord
+   * - draw(WorldScene) -> WorldScene
+   * - move() -> ILoWord
+   * - touchBottom(int) -> boolean
+   * - activateWord(String) -> ILoWord
+   * - hasActive() -> boolean
+   * - toConsList() -> ILoWord
+   * - tick(IWord, int) -> TickResult
+   * - type(String) -> ILoWord
+   * - typeAcc(String, boolean) -> ILoWord
+   * - addAllTo(WordPool) -> void
+   * METHODS ON FIELDS:
+   * - none -
+   */
+  
+  //Returns empty list as there is nothing to check
+  public ILoWord checkAndReduce(String letter) {
+    return this;
+  }
+  
+  //Adds a word to the end of a list of words
+  public ILoWord addToEnd(IWord word) {
+    /* Fields:
+     * word.word -- String
+     * word.x -- int
+     * word.y -- int
+     * 
+     * Methods:
+     * word.matches(String) -- boolean
+     * word.matches(char) -- boolean
+     * word.reduce() -- IWord
+     * word.isEmpty() -- boolean
+     * word.drawWord(WorldScene) -- WorldScene
+     * word.moveWord() -- IWord
+     * word.moveWordBy(int) -- IWord
+     * word.yCoord() -- int
+     * word.touchesBottom(int) -- boolean
+     * word.makeActive() -- IWord
+     * word.isActive() -- boolean
+     * word.addToPool(WordPool) -- void
+     * 
+     * Methods for fields:
+     * (none)
+     * 
+     */
+    
+    return new ConsLoWord(word, this);
+  }
+  
+  //Returns an empty list as there is nothing to filter
+  public ILoWord filterOutEmpties() {
+    return this;
+  }
+  
+  //Returns empty scene as no words to draw
+  public WorldScene draw(WorldScene scene) {
+    return scene;
+  }
+  
+  //Returns empty list as not words to move
+  public ILoWord move() {
+    return this;
+  }
+  
+  //Returns false as there is no words touching bottom of scene
+  public boolean touchBottom(int height) {
+    return false;
+  }
+  
+  //Returns empty list as there is no words to activate
+  public ILoWord activateWord(String letter) {
+    return this;
+  }
+  
+  //Returns false as there is no active words
+  public boolean hasActive() {
+    return false;
+  }
+  
+  //Already the reference representation
+  public ILoWord toConsList() {
+    return this;
+  }
+  
+  //Nothing to cull or move, so the result is just the moved spawn (if it has letters)
+  public TickResult tick(IWord spawn, int height) {
+    if (spawn.isEmpty()) {
+      return new TickResult(this, false);
+    }
+    return new TickResult(new ConsLoWord(spawn.moveWord(), this), false);
+  }
+  
+  //Returns empty list as there is no words to type into
+  public ILoWord type(String letter) {
+    return this;
+  }
+  
+  //Returns empty list as there is no words to type into
+  public ILoWord typeAcc(String letter, boolean anyActive) {
+    return this;
+  }
+  
+  //Adds nothing as there is no words
+  public void addAllTo(WordPool pool) {
+    return;
+  }
+}
@@ -0,0 +1,604 @@
+import javalib.funworld.*;      // WorldScene
+import java.awt.Color;          // active words are green, inactive ones red
+import java.nio.ByteBuffer;     // the direct buffer the words live in
+import java.nio.ByteOrder;      // records are read in the platform's byte order
+
+//Represents a mutable list of words kept off the Java heap, in one direct ByteBuffer of
+//fixed-width records in list order: x, y and its fraction, the fall velocity, the
+//letters and how many have been typed, an active flag, and up to MAX_LETTERS letters
+//However many words are on screen the collector sees a single buffer object, so a field
+//of hundreds of thousands of words adds nothing to marking; moving, culling and typing
+//rewrite the records in place and never allocate once the buffer has grown
+//Like ArrayLoWord, every operation mutates this list and returns it
+//As an IWordStore it can hold a ZTypeEngine's words, with a word's index as its slot;
+//without a WordPool's indexes, finding a word scans the records, and prefix targeting
+//is not supported
+class OffHeapLoWord implements ILoWord, IWordStore {
+  /**
+   * FIELDS:
+   * - records -> ByteBuffer
+   * - size -> int
+   * - activeCount -> int
+   * - activeIndex -> int
+   * - staging -> WordPool
+   * - scratch -> char[]
+   * - defaultVelocity -> int
+   * METHODS:
+   * - checkAndReduce(String) -> ILoWord
+   * - addToEnd(IWord) -> ILoWord
+   * - filterOutEmpties() -> ILoWord
+   * - draw(WorldScene) -> WorldScene
+   * - move() -> ILoWord
+   * - touchBottom(int) -> boolean
+   * - activateWord(String) -> ILoWord
+   * - hasActive() -> boolean
+   * - toConsList() -> ILoWord
+   * - tick(IWord, int) -> TickResult
+   * - type(String) -> ILoWord
+   * - typeAcc(String, boolean) -> ILoWord
+   * - addAllTo(WordPool) -> void
+   * - add(String, int, int, boolean) -> int
+   * - add(char[], int, int, int, int, boolean) -> int
+   * - checkLetters(int) -> void
+   * - setDefaultVelocity(int) -> void
+   * - step() -> void
+   * - stepSlot(int) -> void
+   * - anyPast(int) -> boolean
+   * - lowest() -> int
+   * - halfWidth(int) -> int
+   * - clearOf(int, int) -> int
+   * - placeClear(int, int, int) -> boolean
+   * - type(char, boolean) -> void
+   * - typeKey(char) -> int
+   * - typeAll(char[], int) -> void
+   * - usePrefixTargeting() -> void
+   * - onlyActive() -> int
+   * - nextLetter(int) -> char
+   * - ensureCapacity(int) -> void
+   * - capacity() -> int
+   * - size() -> int
+   * - x(int) -> int
+   * - y(int) -> int
+   * - isActive(int) -> boolean
+   * - isEmpty(int) -> boolean
+   * - matches(int, char) -> boolean
+   * - activate(int) -> void
+   * - reduce(char) -> int
+   * - firstStartingWith(char, int) -> int
+   * - lastActive() -> int
+   * - copy(int, int) -> void
+   * - letters(int) -> int
+   * - remaining(int) -> String
+   * METHODS ON FIELDS:
+   * - staging.slotAt(int) -> int
+   * - staging.filterOutEmpties() -> void
+   */
+
+  //the layout of one record, in bytes; a record is one 64-byte cache line
+  static final int X = 0;
+  static final int Y = 4;
+  static final int YFRAC = 8;
+  static final int VY = 12;
+  static final int LEN = 16;
+  static final int TYPED = 18;
+  static final int FLAGS = 20;
+  static final int CHARS = 24;
+  static final int MAX_LETTERS = 20;
+  static final int RECORD = CHARS + 2 * MAX_LETTERS;
+  static final byte ACTIVE = 1;
+
+  ByteBuffer records;
+  int size;
+  //the active words, and the index of the only one (-1 if there are none or several)
+  int activeCount;
+  int activeIndex;
+  //a one-word pool that added IWords store themselves in, since an IWord only hands out
+  //its letters that way, and a buffer for the letters of one word on their way out
+  WordPool staging;
+  char[] scratch;
+  //the velocity given to words as they are added, as in WordPool
+  int defaultVelocity;
+
+  OffHeapLoWord() {
+    this(16);
+  }
+
+  OffHeapLoWord(int capacity) {
+    this.records = ByteBuffer.allocateDirect(Math.max(capacity, 1) * RECORD)
+        .order(ByteOrder.nativeOrder());
+    this.size = 0;
+    this.activeCount = 0;
+    this.activeIndex = -1;
+    this.staging = new WordPool(1);
+    this.staging.reserve(1, MAX_LETTERS);
+    this.scratch = new char[MAX_LETTERS];
+    this.defaultVelocity = 25 * WordPool.FIXED_ONE;
+  }
+
+  //Removes the first letter of every active word that starts with 'letter'
+  public ILoWord checkAndReduce(String letter) {
+    if (letter.length() == 1) {
+      this.reduce(letter.charAt(0));
+    }
+    return this;
+  }
+
+  //Adds the given word to the end of the list
+  //The staged copy is dropped even if the word is refused, so the next word staged is
+  //the only one there
+  public ILoWord addToEnd(IWord word) {
+    word.addToPool(this.staging);
+    int slot = this.staging.slotAt(0);
+    try {
+      this.add(this.staging.text[slot], this.staging.typed[slot], this.staging.len[slot],
+          this.staging.x[slot], this.staging.y[slot], this.staging.active[slot]);
+    }
+    finally {
+      this.staging.typed[slot] = this.staging.len[slot];
+      this.staging.filterOutEmpties();
+    }
+    return this;
+  }
+
+  //Drops every empty word, sliding the rest down over them in a single pass
+  public ILoWord filterOutEmpties() {
+    int kept = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (this.isEmpty(i)) {
+        if (this.isActive(i)) {
+          this.activeCount--;
+          if (this.activeIndex == i) {
+            this.activeIndex = -1;
+          }
+        }
+      }
+      else {
+        this.copy(i, kept++);
+      }
+    }
+    this.size = kept;
+    return this;
+  }
+
+  //Draws every word at its location, active words in green
+  public WorldScene draw(WorldScene scene) {
+    for (int i = 0; i < this.size; i++) {
+      int n = this.letters(i);
+      Color color = this.isActive(i) ? Color.GREEN : Color.RED;
+      scene = scene.placeImageXY(TextImageCache.SHARED.get(this.scratch, 0, n, 35, color),
+          this.x(i), this.y(i));
+    }
+    return scene;
+  }
+
+  //Moves every word 25 pixels towards the bottom of the screen
+  public ILoWord move() {
+    for (int i = 0; i < this.size; i++) {
+      int at = i * RECORD + Y;
+      this.records.putInt(at, this.records.getInt(at) + 25);
+    }
+    return this;
+  }
+
+  //Does any word touch the bottom of the screen?
+  public boolean touchBottom(int height) {
+    for (int i = 0; i < this.size; i++) {
+      if (this.y(i) >= height) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //Activates the same word ConsLoWord.activateWord would: the first word starting with
+  //'letter' that has no active word at or after it
+  public ILoWord activateWord(String letter) {
+    if (letter.length() == 1) {
+      int i = this.firstStartingWith(letter.charAt(0), this.lastActive() + 1);
+      if (i != -1) {
+        this.activate(i);
+      }
+    }
+    return this;
+  }
+
+  //Does the list have active words?
+  public boolean hasActive() {
+    return this.activeCount > 0;
+  }
+
+  //Culls, moves and checks the list in one pass, then appends the moved spawn
+  public TickResult tick(IWord spawn, int height) {
+    boolean gameOver = false;
+    int kept = 0;
+    for (int i = 0; i < this.size; i++) {
+      int at = i * RECORD + Y;
+      int y = this.records.getInt(at);
+      gameOver = gameOver || y >= height;
+      if (this.isEmpty(i)) {
+        if (this.isActive(i)) {
+          this.activeCount--;
+          if (this.activeIndex == i) {
+            this.activeIndex = -1;
+          }
+        }
+      }
+      else {
+        this.records.putInt(at, y + 25);
+        this.copy(i, kept++);
+      }
+    }
+    this.size = kept;
+    if (!spawn.isEmpty()) {
+      this.addToEnd(spawn.moveWord());
+    }
+    return new TickResult(this, gameOver);
+  }
+
+  //Finds or activates the target and reduces it
+  public ILoWord type(String letter) {
+    return this.typeAcc(letter, false);
+  }
+
+  //Same as type, but never activates a word when 'anyActive' is true
+  public ILoWord typeAcc(String letter, boolean anyActive) {
+    if (letter.length() == 1) {
+      this.type(letter.charAt(0), anyActive);
+    }
+    return this;
+  }
+
+  //Copies the untyped letters of every word into 'pool'
+  public void addAllTo(WordPool pool) {
+    for (int i = 0; i < this.size; i++) {
+      pool.add(this.scratch, 0, this.letters(i), this.x(i), this.y(i), this.isActive(i));
+    }
+  }
+
+  //Copies the list into the equivalent ConsLoWord list
+  public ILoWord toConsList() {
+    ILoWord result = new MtLoWord();
+    for (int i = this.size - 1; i >= 0; i--) {
+      String rest = this.remaining(i);
+      if (this.isActive(i)) {
+        result = new ConsLoWord(new ActiveWord(rest, this.x(i), this.y(i)), result);
+      }
+      else {
+        result = new ConsLoWord(new InactiveWord(rest, this.x(i), this.y(i)), result);
+      }
+    }
+    return result;
+  }
+
+  //Appends 'word' at 'x', 'y' and returns its index
+  //Throws IllegalArgumentException if it has more than MAX_LETTERS letters
+  public int add(String word, int x, int y, boolean active) {
+    int n = word.length();
+    this.checkLetters(n);
+    word.getChars(0, n, this.scratch, 0);
+    return this.add(this.scratch, 0, n, x, y, active);
+  }
+
+  //Appends the letters 'chars[from..to)' as a word at 'x', 'y' and returns its index
+  //Throws IllegalArgumentException if there are more than MAX_LETTERS of them
+  public int add(char[] chars, int from, int to, int x, int y, boolean active) {
+    int n = to - from;
+    this.checkLetters(n);
+    this.ensureCapacity(this.size + 1);
+    int i = this.size++;
+    int at = i * RECORD;
+    this.records.putInt(at + X, x);
+    this.records.putInt(at + Y, y);
+    this.records.putInt(at + YFRAC, 0);
+    this.records.putInt(at + VY, this.defaultVelocity);
+    this.records.putShort(at + LEN, (short) n);
+    this.records.putShort(at + TYPED, (short) 0);
+    this.records.put(at + FLAGS, (byte) 0);
+    for (int k = 0; k < n; k++) {
+      this.records.putChar(at + CHARS + 2 * k, chars[from + k]);
+    }
+    if (active) {
+      this.activate(i);
+    }
+    return i;
+  }
+
+  //Throws IllegalArgumentException if a word of 'n' letters does not fit in a record
+  void checkLetters(int n) {
+    if (n > MAX_LETTERS) {
+      throw new IllegalArgumentException("Words stored off the heap hold at most "
+          + MAX_LETTERS + " letters, not " + n);
+    }
+  }
+
+  //Sets the velocity given to words as they are added
+  public void setDefaultVelocity(int velocity) {
+    this.defaultVelocity = velocity;
+  }
+
+  //Runs one fixed-timestep step in a single pass: drops empty words, sliding the rest
+  //down over them, and moves the rest by their own velocity
+  public void step() {
+    int kept = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (this.isEmpty(i)) {
+        if (this.isActive(i)) {
+          this.activeCount--;
+          if (this.activeIndex == i) {
+            this.activeIndex = -1;
+          }
+        }
+      }
+      else {
+        this.stepSlot(i);
+        this.copy(i, kept++);
+      }
+    }
+    this.size = kept;
+  }
+
+  //Moves the 'i'th word by one step of its velocity, carrying whole pixels out of its
+  //fraction
+  public void stepSlot(int i) {
+    int at = i * RECORD;
+    int fixed = this.records.getInt(at + YFRAC) + this.records.getInt(at + VY);
+    this.records.putInt(at + Y, this.records.getInt(at + Y) + (fixed >> 16));
+    this.records.putInt(at + YFRAC, fixed & (WordPool.FIXED_ONE - 1));
+  }
+
+  //Returns true if any word is at or past 'height'
+  public boolean anyPast(int height) {
+    return this.touchBottom(height);
+  }
+
+  //Returns the index of the word nearest the bottom (the first in the list, if several
+  //are as low), or -1 if the list is empty
+  public int lowest() {
+    int best = -1;
+    for (int i = 0; i < this.size; i++) {
+      if (best == -1 || this.y(i) > this.y(best)) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  //Returns roughly half the drawn width of the remaining text of the 'i'th word
+  int halfWidth(int i) {
+    int at = i * RECORD;
+    return (this.records.getShort(at + LEN) - this.records.getShort(at + TYPED))
+        * WordPool.LETTER_WIDTH / 2;
+  }
+
+  //Returns -1 if the 'i'th word would overlap no other word when centered at 'x', or
+  //else the nearest x to its right that clears every word it would overlap, as
+  //WordPool.clearOf does
+  int clearOf(int i, int x) {
+    int y = this.y(i);
+    int half = this.halfWidth(i);
+    int right = -1;
+    for (int j = 0; j < this.size; j++) {
+      int gap = half + this.halfWidth(j);
+      if (j != i && Math.abs(this.y(j) - y) < WordPool.LINE_HEIGHT
+          && Math.abs(this.x(j) - x) < gap) {
+        right = Math.max(right, this.x(j) + gap);
+      }
+    }
+    return right;
+  }
+
+  //Moves the 'i'th word to the nearest clear x in 'minX..maxX', by the same search as
+  //WordPool.placeClear, and returns false, leaving it where it was, if none is found
+  public boolean placeClear(int i, int minX, int maxX) {
+    int start = this.x(i);
+    int x = start;
+    boolean wrapped = false;
+    for (int tries = 0; tries < WordPool.PLACE_TRIES; tries++) {
+      int right = this.clearOf(i, x);
+      if (right == -1) {
+        this.records.putInt(i * RECORD + X, x);
+        return true;
+      }
+      x = right;
+      if (x > maxX) {
+        if (wrapped) {
+          return false;
+        }
+        wrapped = true;
+        x = minX;
+      }
+      else if (wrapped && x >= start) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  //Handles one key press: reduces the active words starting with 'c', or if there is no
+  //active word (and 'anyActive' is false), activates and reduces the first word starting
+  //with 'c'
+  public void type(char c, boolean anyActive) {
+    if (this.activeCount > 0 || !anyActive) {
+      this.typeKey(c);
+    }
+  }
+
+  //Handles one key press like type(c, false), and returns what it did, as
+  //WordPool.typeKey does
+  public int typeKey(char c) {
+    if (this.activeCount > 0) {
+      if (this.reduce(c) == 0) {
+        return WordPool.MISS;
+      }
+      return this.activeIndex != -1 && this.isEmpty(this.activeIndex)
+          ? WordPool.COMPLETE : WordPool.HIT;
+    }
+    int i = this.firstStartingWith(c, 0);
+    if (i == -1) {
+      return WordPool.MISS;
+    }
+    this.activate(i);
+    this.reduce(c);
+    return this.isEmpty(i) ? WordPool.COMPLETE : WordPool.ACTIVATE;
+  }
+
+  //Handles the first 'n' key presses in 'keys' in order
+  public void typeAll(char[] keys, int n) {
+    for (int i = 0; i < n; i++) {
+      this.type(keys[i], false);
+    }
+  }
+
+  //Refuses prefix targeting, which needs the trie a WordPool keeps
+  public void usePrefixTargeting() {
+    throw new UnsupportedOperationException("Words stored off the heap are only "
+        + "targeted by their first letter");
+  }
+
+  //Returns the index of the active word, or -1 if there is none or more than one
+  public int onlyActive() {
+    return this.activeIndex;
+  }
+
+  //Returns the next letter to type of the 'i'th word
+  public char nextLetter(int i) {
+    int at = i * RECORD;
+    return this.records.getChar(at + CHARS + 2 * this.records.getShort(at + TYPED));
+  }
+
+  //Moves the records to a buffer twice as large, if 'words' would not fit
+  void ensureCapacity(int words) {
+    if (words > this.capacity()) {
+      ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(words, 2 * this.capacity()) * RECORD)
+          .order(ByteOrder.nativeOrder());
+      larger.put(0, this.records, 0, this.size * RECORD);
+      this.records = larger;
+    }
+  }
+
+  //Returns how many words the list holds before its buffer grows
+  int capacity() {
+    return this.records.capacity() / RECORD;
+  }
+
+  //Returns the number of words
+  public int size() {
+    return this.size;
+  }
+
+  //Returns the x coordinate of the 'i'th word
+  int x(int i) {
+    return this.records.getInt(i * RECORD + X);
+  }
+
+  //Returns the y coordinate of the 'i'th word
+  int y(int i) {
+    return this.records.getInt(i * RECORD + Y);
+  }
+
+  //Is the 'i'th word active?
+  boolean isActive(int i) {
+    return (this.records.get(i * RECORD + FLAGS) & ACTIVE) != 0;
+  }
+
+  //Has every letter of the 'i'th word been typed?
+  public boolean isEmpty(int i) {
+    int at = i * RECORD;
+    return this.records.getShort(at + TYPED) == this.records.getShort(at + LEN);
+  }
+
+  //Do the untyped letters of the 'i'th word start with 'c'?
+  boolean matches(int i, char c) {
+    int at = i * RECORD;
+    int typed = this.records.getShort(at + TYPED);
+    return typed < this.records.getShort(at + LEN)
+        && this.records.getChar(at + CHARS + 2 * typed) == c;
+  }
+
+  //Marks the 'i'th word active
+  void activate(int i) {
+    if (!this.isActive(i)) {
+      int at = i * RECORD + FLAGS;
+      this.records.put(at, (byte) (this.records.get(at) | ACTIVE));
+      this.activeCount++;
+      this.activeIndex = this.activeCount == 1 ? i : -1;
+    }
+  }
+
+  //Types the first untyped letter of every active word that starts with 'c', and
+  //returns how many words that was
+  int reduce(char c) {
+    int reduced = 0;
+    if (this.activeIndex != -1) {
+      if (this.matches(this.activeIndex, c)) {
+        int at = this.activeIndex * RECORD + TYPED;
+        this.records.putShort(at, (short) (this.records.getShort(at) + 1));
+        reduced++;
+      }
+    }
+    else if (this.activeCount > 0) {
+      for (int i = 0; i < this.size; i++) {
+        if (this.isActive(i) && this.matches(i, c)) {
+          int at = i * RECORD + TYPED;
+          this.records.putShort(at, (short) (this.records.getShort(at) + 1));
+          reduced++;
+        }
+      }
+    }
+    return reduced;
+  }
+
+  //Returns the index of the first word from 'from' on that starts with 'c', or -1
+  int firstStartingWith(char c, int from) {
+    for (int i = from; i < this.size; i++) {
+      if (this.matches(i, c)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  //Returns the index of the last active word, or -1 if there is none
+  int lastActive() {
+    if (this.activeIndex != -1 || this.activeCount == 0) {
+      return this.activeIndex;
+    }
+    for (int i = this.size - 1; i >= 0; i--) {
+      if (this.isActive(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  //Copies the 'from'th record over the 'to'th, following the active word if it moves
+  void copy(int from, int to) {
+    if (from != to) {
+      int src = from * RECORD;
+      int dst = to * RECORD;
+      for (int k = 0; k < RECORD; k += 8) {
+        this.records.putLong(dst + k, this.records.getLong(src + k));
+      }
+      if (this.activeIndex == from) {
+        this.activeIndex = to;
+      }
+    }
+  }
+
+  //Reads the untyped letters of the 'i'th word into 'scratch' and returns how many
+  //there are
+  int letters(int i) {
+    int at = i * RECORD;
+    int typed = this.records.getShort(at + TYPED);
+    int n = this.records.getShort(at + LEN) - typed;
+    for (int k = 0; k < n; k++) {
+      this.scratch[k] = this.records.getChar(at + CHARS + 2 * (typed + k));
+    }
+    return n;
+  }
+
+  //Returns the letters of the 'i'th word that have not been typed yet
+  String remaining(int i) {
+    return new String(this.scratch, 0, this.letters(i));
+  }
+}
@@ -0,0 +1,219 @@
+import java.io.IOException;               // for failures reading the log
+import java.nio.ByteBuffer;               // the log, mapped instead of read
+import java.nio.channels.FileChannel;     // to map the log
+import java.nio.file.Path;                // where the log lives
+import java.nio.file.StandardOpenOption;  // to open the log read-only
+import java.util.ArrayList;               // the checkpoints taken so far
+import java.util.Arrays;                  // for trimming the decoded keys
+
+//Represents a recorded session (see ReplayRecorder) loaded for headless playback
+//The key presses are decoded once into parallel arrays, and the game is re-simulated
+//by a ZTypeEngine with no window and no clock, as fast as it can tick
+//Checkpoints of the game can be taken every so many ticks along the way, so seeking
+//to a tick only replays from the last checkpoint before it
+class ReplayPlayer {
+  /**
+   * FIELDS:
+   * - seed -> long
+   * - bottom -> int
+   * - spawnY -> int
+   * - fallVelocity -> int
+   * - minX -> int
+   * - maxX -> int
+   * - spawnsPerTick -> double
+   * - prefixTargeting -> boolean
+   * - keyTicks -> int[]
+   * - keys -> char[]
+   * - endTick -> int
+   * - endedOver -> boolean
+   * - checkpoints -> ArrayList<ReplayCheckpoint>
+   * METHODS:
+   * - getVarint(ByteBuffer) -> int
+   * - newEngine() -> ZTypeEngine
+   * - run() -> ZTypeEngine
+   * - takeCheckpoints(int) -> void
+   * - seek(int) -> ZTypeEngine
+   * METHODS ON FIELDS:
+   * - checkpoints.get(int) -> ReplayCheckpoint
+   * - checkpoints.add(ReplayCheckpoint) -> boolean
+   */
+
+  //the engine settings the session was played with
+  long seed;
+  int bottom;
+  int spawnY;
+  int fallVelocity;
+  int minX;
+  int maxX;
+  double spawnsPerTick;
+  boolean prefixTargeting;
+
+  //key i was pressed before tick keyTicks[i]; the session ended at 'endTick', or at the
+  //last key if the log was cut short, with the game over if 'endedOver'
+  int[] keyTicks;
+  char[] keys;
+  int endTick;
+  boolean endedOver;
+
+  //checkpoints in tick order, the first always at tick 0
+  ArrayList<ReplayCheckpoint> checkpoints;
+
+  //Loads the log at 'file'
+  ReplayPlayer(Path file) throws IOException {
+    ByteBuffer data;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (data.remaining() < ReplayRecorder.HEADER_BYTES
+        || data.getInt() != ReplayRecorder.MAGIC) {
+      throw new IOException("Not a ZType replay: " + file);
+    }
+    short version = data.getShort();
+    if (version != ReplayRecorder.VERSION) {
+      throw new IOException("Unsupported replay version " + version + ": " + file);
+    }
+    this.seed = data.getLong();
+    this.bottom = data.getInt();
+    this.spawnY = data.getInt();
+    this.fallVelocity = data.getInt();
+    this.minX = data.getInt();
+    this.maxX = data.getInt();
+    this.spawnsPerTick = data.getDouble();
+    this.prefixTargeting = data.get() == 1;
+    //every key takes at least two bytes, so this is always enough room
+    int[] ticks = new int[(data.remaining() + 1) / 2];
+    char[] chars = new char[ticks.length];
+    int n = 0;
+    int tick = 0;
+    this.endTick = -1;
+    //a record cut off by the end of the log is dropped
+    while (data.hasRemaining() && this.endTick == -1) {
+      int head = this.getVarint(data);
+      int value = head == -1 ? -1 : this.getVarint(data);
+      if (value == -1) {
+        break;
+      }
+      tick += head >>> 1;
+      if ((head & 1) == ReplayRecorder.END) {
+        this.endTick = tick;
+        this.endedOver = value == 1;
+      }
+      else {
+        ticks[n] = tick;
+        chars[n] = (char) value;
+        n++;
+      }
+    }
+    if (this.endTick == -1) {
+      this.endTick = tick;
+    }
+    this.keyTicks = Arrays.copyOf(ticks, n);
+    this.keys = Arrays.copyOf(chars, n);
+    this.checkpoints = new ArrayList<ReplayCheckpoint>();
+    this.checkpoints.add(new ReplayCheckpoint(this.newEngine(), 0));
+  }
+
+  //Reads a varint written by ReplayRecorder.putVarint, or returns -1 if the log ends
+  //before it does
+  int getVarint(ByteBuffer data) throws IOException {
+    int v = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (!data.hasRemaining()) {
+        return -1;
+      }
+      byte b = data.get();
+      v |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return v;
+      }
+    }
+    throw new IOException("Malformed varint in replay log");
+  }
+
+  //Returns a new engine with the recorded seed and settings
+  ZTypeEngine newEngine() {
+    ZTypeEngine engine = new ZTypeEngine(this.seed);
+    engine.bottom = this.bottom;
+    engine.spawnY = this.spawnY;
+    engine.fallVelocity = this.fallVelocity;
+    engine.pool.defaultVelocity = this.fallVelocity;
+    engine.minX = this.minX;
+    engine.maxX = this.maxX;
+    engine.spawnsPerTick = this.spawnsPerTick;
+    if (this.prefixTargeting) {
+      engine.usePrefixTargeting();
+    }
+    return engine;
+  }
+
+  //Replays the whole session and returns the engine as it was when the session ended,
+  //including any keys pressed after its last tick and the tick that ended the game
+  ZTypeEngine run() {
+    ZTypeEngine engine = this.seek(this.endTick);
+    for (int i = 0; i < this.keys.length; i++) {
+      if (this.keyTicks[i] == engine.ticks) {
+        engine.key(this.keys[i]);
+      }
+    }
+    if (this.endedOver) {
+      engine.tick();
+    }
+    return engine;
+  }
+
+  //Replays the whole session once, keeping a checkpoint every 'interval' ticks
+  void takeCheckpoints(int interval) {
+    ReplayCheckpoint last = this.checkpoints.get(this.checkpoints.size() - 1);
+    ZTypeEngine engine = last.restore();
+    int next = last.nextKey;
+    for (int tick = engine.ticks + interval; tick <= this.endTick && !engine.isOver();
+        tick += interval) {
+      next = engine.playFrom(this.keyTicks, this.keys, next, tick);
+      this.checkpoints.add(new ReplayCheckpoint(engine, next));
+    }
+  }
+
+  //Returns the game after 'tick' ticks (or when it ended, if sooner), before the keys
+  //pressed ahead of the next tick, replaying from the last checkpoint at or before it
+  ZTypeEngine seek(int tick) {
+    ReplayCheckpoint from = this.checkpoints.get(0);
+    for (ReplayCheckpoint checkpoint : this.checkpoints) {
+      if (checkpoint.ticks <= tick) {
+        from = checkpoint;
+      }
+    }
+    ZTypeEngine engine = from.restore();
+    engine.playFrom(this.keyTicks, this.keys, from.nextKey, tick);
+    return engine;
+  }
+}
+
+//Represents the state of a replayed game at one tick, as an EngineSnapshot, and the
+//first key not yet pressed; every restore decodes a fresh engine from the snapshot
+class ReplayCheckpoint {
+  /**
+   * FIELDS:
+   * - snapshot -> ByteBuffer
+   * - ticks -> int
+   * - nextKey -> int
+   * METHODS:
+   * - restore() -> ZTypeEngine
+   * METHODS ON FIELDS:
+   * - snapshot.duplicate() -> ByteBuffer
+   */
+
+  ByteBuffer snapshot;
+  int ticks;
+  int nextKey;
+
+  ReplayCheckpoint(ZTypeEngine engine, int nextKey) {
+    this.snapshot = new EngineSnapshot().snapshot(engine);
+    this.ticks = engine.ticks;
+    this.nextKey = nextKey;
+  }
+
+  //Returns a copy of the game at this checkpoint
+  ZTypeEngine restore() {
+    return new EngineSnapshot().decode(this.snapshot.duplicate());
+  }
+}
@@ -0,0 +1,128 @@
+import java.io.IOException;               // for failures writing the log
+import java.nio.ByteBuffer;               // where records are built before writing
+import java.nio.channels.FileChannel;     // the log file
+import java.nio.file.Path;                // where the log lives
+import java.nio.file.StandardOpenOption;  // to create the log
+
+//Represents a recording of a game session: the seed and settings of a seeded engine,
+//then every key press and the tick it came before, appended to a file
+//Records are built in a direct buffer and written through a FileChannel when it fills
+//(and on close), so recording a key press is a few bytes of buffer writes
+//
+//Format (big-endian):
+//  header: MAGIC (int), VERSION (short), seed (long), bottom, spawnY, fallVelocity,
+//          minX, maxX (ints), spawnsPerTick (double), targeting (byte, 1 if the pool
+//          targets words by typed prefix)
+//  records, each starting with a varint of (ticks since the last record << 1 | kind):
+//    kind 0: a key press before that tick, followed by a varint of the key
+//    kind 1: the session ended at that tick, followed by a varint that is 1 if the game
+//            was over (the next tick found a word past the bottom) and 0 if not
+//A log without an end record was cut short; everything before the cut still replays
+class ReplayRecorder {
+  /**
+   * FIELDS:
+   * - channel -> FileChannel
+   * - buffer -> ByteBuffer
+   * - lastTick -> int
+   * - closed -> boolean
+   * METHODS:
+   * - key(int, char) -> void
+   * - end(int, boolean) -> void
+   * - putVarint(int) -> void
+   * - ensureRoom(int) -> void
+   * - flush() -> void
+   * - close() -> void
+   * METHODS ON FIELDS:
+   * - channel.write(ByteBuffer) -> int
+   * - channel.close() -> void
+   */
+
+  static final int MAGIC = 0x5A545250;
+  static final short VERSION = 2;
+  static final int HEADER_BYTES = 4 + 2 + 8 + 5 * 4 + 8 + 1;
+  static final int KEY = 0;
+  static final int END = 1;
+
+  FileChannel channel;
+  ByteBuffer buffer;
+  int lastTick;
+  boolean closed;
+
+  //Starts a new log at 'file' (replacing any file there) for a game played by 'engine',
+  //which must be seeded and not yet started, and already set to target by prefix if it
+  //ever will
+  ReplayRecorder(Path file, ZTypeEngine engine) throws IOException {
+    if (!engine.seeded || engine.ticks != 0 || engine.liveCount() != 0) {
+      throw new IllegalArgumentException("Only a new, seeded game can be recorded");
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(64 * 1024);
+    this.lastTick = 0;
+    this.closed = false;
+    this.buffer.putInt(MAGIC)
+        .putShort(VERSION)
+        .putLong(engine.seed)
+        .putInt(engine.bottom)
+        .putInt(engine.spawnY)
+        .putInt(engine.fallVelocity)
+        .putInt(engine.minX)
+        .putInt(engine.maxX)
+        .putDouble(engine.spawnsPerTick)
+        .put((byte) (engine.pool.trie != null ? 1 : 0));
+  }
+
+  //Records that 'c' was pressed before tick 'tick'
+  void key(int tick, char c) throws IOException {
+    this.ensureRoom(10);
+    this.putVarint((tick - this.lastTick) << 1 | KEY);
+    this.putVarint(c);
+    this.lastTick = tick;
+  }
+
+  //Records that the session ended at tick 'tick', with the game 'over' or not
+  void end(int tick, boolean over) throws IOException {
+    this.ensureRoom(6);
+    this.putVarint((tick - this.lastTick) << 1 | END);
+    this.putVarint(over ? 1 : 0);
+    this.lastTick = tick;
+  }
+
+  //Writes 'v' (non-negative) seven bits at a time, low bits first, with the top bit
+  //of each byte set when more follow
+  void putVarint(int v) {
+    while ((v & ~0x7F) != 0) {
+      this.buffer.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    this.buffer.put((byte) v);
+  }
+
+  //Writes the buffer out if it has fewer than 'bytes' bytes of room
+  void ensureRoom(int bytes) throws IOException {
+    if (this.closed) {
+      throw new IOException("Replay log already closed");
+    }
+    if (this.buffer.remaining() < bytes) {
+      this.flush();
+    }
+  }
+
+  //Writes every buffered record to the file
+  void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  //Writes what is buffered and closes the file; closing again does nothing
+  void close() throws IOException {
+    if (!this.closed) {
+      this.flush();
+      this.channel.close();
+      this.closed = true;
+    }
+  }
+}
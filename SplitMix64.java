@@ -0,0 +1,32 @@
+//Represents a small, fast, seedable random number generator (SplitMix64, the algorithm
+//behind java.util.SplittableRandom) whose whole state is one long
+class SplitMix64 {
+  /**
+   * FIELDS:
+   * - state -> long
+   * METHODS:
+   * - nextLong() -> long
+   * - nextInt(int) -> int
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  long state;
+
+  SplitMix64(long seed) {
+    this.state = seed;
+  }
+
+  //Returns the next 64 random bits
+  long nextLong() {
+    long z = (this.state += 0x9E3779B97F4A7C15L);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  //Returns a random int in [0, bound) by scaling the top 32 bits instead of dividing
+  int nextInt(int bound) {
+    return (int) (((this.nextLong() >>> 32) * bound) >>> 32);
+  }
+}
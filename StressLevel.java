@@ -0,0 +1,59 @@
+//Represents the measured costs of one population level of a StressTest
+class StressLevel {
+  /**
+   * FIELDS:
+   * - population -> int
+   * - meanLive -> double
+   * - ticksPerSecond -> double
+   * - tickNanos -> long
+   * - frameNanos -> long
+   * - finished -> int
+   * - heapBytes -> long
+   * - gcs -> long
+   * - gcMillis -> long
+   * METHODS:
+   * - nanosPerWord() -> double
+   * - summary() -> String
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  int population;
+  double meanLive;
+  //ticks (with their frames) run per second, and the mean cost of each part
+  double ticksPerSecond;
+  long tickNanos;
+  long frameNanos;
+  //the words the bot finished, which new words replaced
+  int finished;
+  //the heap in use after the level, and the collections during it
+  long heapBytes;
+  long gcs;
+  long gcMillis;
+
+  StressLevel(int population, double meanLive, double ticksPerSecond, long tickNanos,
+      long frameNanos, int finished, long heapBytes, long gcs, long gcMillis) {
+    this.population = population;
+    this.meanLive = meanLive;
+    this.ticksPerSecond = ticksPerSecond;
+    this.tickNanos = tickNanos;
+    this.frameNanos = frameNanos;
+    this.finished = finished;
+    this.heapBytes = heapBytes;
+    this.gcs = gcs;
+    this.gcMillis = gcMillis;
+  }
+
+  //Returns the cost of a tick and its frame per word on screen
+  double nanosPerWord() {
+    return (this.tickNanos + this.frameNanos) / Math.max(1, this.meanLive);
+  }
+
+  //Returns the level's measurements on one line
+  String summary() {
+    return String.format("words=%d (mean %.0f) %.0f ticks/s tick=%.1fus frame=%.1fus "
+        + "%.1fns/word finished=%d heap=%dMB gc=%d/%dms", this.population, this.meanLive,
+        this.ticksPerSecond, this.tickNanos / 1e3, this.frameNanos / 1e3,
+        this.nanosPerWord(), this.finished, this.heapBytes >> 20, this.gcs, this.gcMillis);
+  }
+}
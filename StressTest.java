@@ -0,0 +1,165 @@
+import java.lang.management.GarbageCollectorMXBean; // GC counts and times per level
+import java.lang.management.ManagementFactory;      // the platform MX beans
+import java.util.ArrayList;                         // the levels of a scaling curve
+
+//Represents an endurance run of the game at a fixed population of words: new words are
+//spawned up to 'spawnsPerTick' a tick until the target population is on screen, a bot
+//typist keeps finishing words so new ones keep arriving, and nothing ever ends the game
+//Each level times the engine tick (bot included) and the frame drawn from it, and
+//notes the heap and garbage collections, so the same run always yields the same
+//scaling curve for the word list and rendering paths
+//The engine keeps its words in a WordPool, or off the heap in an OffHeapLoWord
+class StressTest {
+  /**
+   * FIELDS:
+   * - spawnsPerTick -> int
+   * - pixelsPerTick -> double
+   * - warmupTicks -> int
+   * - measureTicks -> int
+   * METHODS:
+   * - run(int) -> StressLevel
+   * - run(int, boolean) -> StressLevel
+   * - fill(ZTypeEngine, int) -> void
+   * - feed(ZTypeEngine, int) -> void
+   * - curve(int, int, long, boolean) -> ArrayList<StressLevel>
+   * - gcCount() -> long
+   * - gcMillis() -> long
+   * - main(String[]) -> void
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  int spawnsPerTick;
+  //words fall slowly, so a population of thousands is not all packed into the bottom row
+  double pixelsPerTick;
+  int warmupTicks;
+  int measureTicks;
+
+  StressTest(int spawnsPerTick, double pixelsPerTick, int warmupTicks, int measureTicks) {
+    this.spawnsPerTick = spawnsPerTick;
+    this.pixelsPerTick = pixelsPerTick;
+    this.warmupTicks = warmupTicks;
+    this.measureTicks = measureTicks;
+  }
+
+  //Makes a stress test spawning up to 64 words a tick, falling a pixel a tick, timed
+  //over 500 ticks after 200 to warm up
+  StressTest() {
+    this(64, 1, 200, 500);
+  }
+
+  //Fills a game to 'population' words and returns the costs of keeping it there
+  StressLevel run(int population) {
+    return this.run(population, false);
+  }
+
+  //Same as run, with the words kept off the heap if 'offHeap'
+  StressLevel run(int population, boolean offHeap) {
+    ZTypeEngine engine;
+    ILoWord words;
+    if (offHeap) {
+      OffHeapLoWord store = new OffHeapLoWord(population + this.spawnsPerTick);
+      engine = new ZTypeEngine(store, new WordGenerator(population));
+      words = store;
+    }
+    else {
+      engine = new ZTypeEngine(new WordPool(population + this.spawnsPerTick),
+          new WordGenerator(population));
+      words = new ArrayLoWord(engine.pool);
+    }
+    this.fill(engine, population);
+    BotTypist bot = new BotTypist(8, 0, population);
+    for (int i = 0; i < this.warmupTicks; i++) {
+      this.feed(engine, population);
+      bot.typeFor(engine);
+      engine.tick();
+      words.draw(ZTypeWorld.BACKGROUND);
+    }
+    long gcs = this.gcCount();
+    long gcTime = this.gcMillis();
+    int words0 = bot.words;
+    long live = 0;
+    long tickNanos = 0;
+    long frameNanos = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < this.measureTicks; i++) {
+      long t0 = System.nanoTime();
+      this.feed(engine, population);
+      bot.typeFor(engine);
+      engine.tick();
+      long t1 = System.nanoTime();
+      words.draw(ZTypeWorld.BACKGROUND);
+      tickNanos += t1 - t0;
+      frameNanos += System.nanoTime() - t1;
+      live += engine.liveCount();
+    }
+    long elapsed = System.nanoTime() - start;
+    return new StressLevel(population, (double) live / this.measureTicks,
+        this.measureTicks * 1e9 / elapsed, tickNanos / this.measureTicks,
+        frameNanos / this.measureTicks, bot.words - words0,
+        ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+        this.gcCount() - gcs, this.gcMillis() - gcTime);
+  }
+
+  //Sets 'engine' to this test's speeds, with no bottom, and ticks it until it has
+  //'population' words
+  void fill(ZTypeEngine engine, int population) {
+    engine.configure(1, this.pixelsPerTick, this.spawnsPerTick);
+    engine.bottom = Integer.MAX_VALUE;
+    while (engine.liveCount() < population) {
+      this.feed(engine, population);
+      engine.tick();
+    }
+  }
+
+  //Lets 'engine' spawn on its next tick only as many words as it is short of 'target'
+  void feed(ZTypeEngine engine, int target) {
+    engine.spawnsPerTick = Math.max(0, Math.min(this.spawnsPerTick, target - engine.liveCount()));
+    engine.spawnDebt = 0;
+  }
+
+  //Runs levels from population 'from', doubling each time, until a tick and its frame
+  //together take longer than 'budgetNanos' (the game can no longer keep up) or the
+  //population passes 'max', with the words kept off the heap if 'offHeap'
+  ArrayList<StressLevel> curve(int from, int max, long budgetNanos, boolean offHeap) {
+    ArrayList<StressLevel> levels = new ArrayList<StressLevel>();
+    for (int population = from; population <= max; population *= 2) {
+      StressLevel level = this.run(population, offHeap);
+      levels.add(level);
+      if (level.tickNanos + level.frameNanos > budgetNanos) {
+        break;
+      }
+    }
+    return levels;
+  }
+
+  //Returns the collections so far, over every collector
+  long gcCount() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sum += Math.max(0, gc.getCollectionCount());
+    }
+    return sum;
+  }
+
+  //Returns the time spent collecting so far, over every collector
+  long gcMillis() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sum += Math.max(0, gc.getCollectionTime());
+    }
+    return sum;
+  }
+
+  //Prints the scaling curve from 100 words up to the first argument (default 100000),
+  //stopping once a tick and frame no longer fit in a 60Hz frame
+  //With "offheap" as the second argument, the words are kept off the heap
+  public static void main(String[] args) {
+    int max = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    boolean offHeap = args.length > 1 && args[1].equals("offheap");
+    StressTest stress = new StressTest();
+    for (StressLevel level : stress.curve(100, max, 1_000_000_000L / 60, offHeap)) {
+      System.out.println(level.summary());
+    }
+  }
+}
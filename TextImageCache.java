@@ -0,0 +1,171 @@
+import javalib.worldimages.*;   // TextImage and WorldImage
+import java.awt.Color;          // part of what makes a text image unique
+import java.util.LinkedHashMap; // an access-ordered map gives LRU eviction
+import java.util.Map;
+
+//Represents a bounded cache of text images keyed by (text, size, color)
+//Words that have not changed since the last frame reuse their image instead of building
+//a new TextImage; the least recently drawn image is evicted once 'capacity' is reached
+//Lookups copy the text into a reusable probe key, so a hit does not allocate
+//Not thread-safe: it is meant to be used from the drawing thread only
+class TextImageCache {
+  /**
+   * FIELDS:
+   * - capacity -> int
+   * - images -> LinkedHashMap<TextKey, WorldImage>
+   * - probe -> TextKey
+   * - scratch -> char[]
+   * - hits -> long
+   * - misses -> long
+   * METHODS:
+   * - get(String, int, Color) -> WorldImage
+   * - get(char[], int, int, int, Color) -> WorldImage
+   * - size() -> int
+   * METHODS ON FIELDS:
+   * - probe.set(char[], int, int, int, Color) -> TextKey
+   * - probe.copy() -> TextKey
+   */
+
+  //the cache every word draws through
+  static final TextImageCache SHARED = new TextImageCache(1024);
+
+  int capacity;
+  LinkedHashMap<TextKey, WorldImage> images;
+  TextKey probe;
+  //where String lookups are copied, since the probe may point into a word's own letters
+  char[] scratch;
+  long hits;
+  long misses;
+
+  TextImageCache(int capacity) {
+    this.capacity = capacity;
+    this.images = new LinkedHashMap<TextKey, WorldImage>(capacity * 2, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<TextKey, WorldImage> eldest) {
+        return this.size() > TextImageCache.this.capacity;
+      }
+    };
+    this.probe = new TextKey(new char[0], 0, 0, 0, Color.BLACK);
+    this.scratch = new char[16];
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  //Returns the image of 'text' at 'size' in 'color', building it only on a miss
+  WorldImage get(String text, int size, Color color) {
+    int n = text.length();
+    if (this.scratch.length < n) {
+      this.scratch = new char[Math.max(n, this.scratch.length * 2)];
+    }
+    text.getChars(0, n, this.scratch, 0);
+    return this.get(this.scratch, 0, n, size, color);
+  }
+
+  //Returns the image of the letters 'chars[from..to)' at 'size' in 'color',
+  //building it only on a miss
+  WorldImage get(char[] chars, int from, int to, int size, Color color) {
+    WorldImage image = this.images.get(this.probe.set(chars, from, to, size, color));
+    if (image != null) {
+      this.hits++;
+      return image;
+    }
+    this.misses++;
+    TextKey key = this.probe.copy();
+    image = new TextImage(new String(key.chars, 0, key.len), size, color);
+    this.images.put(key, image);
+    return image;
+  }
+
+  //Returns the number of cached images
+  int size() {
+    return this.images.size();
+  }
+}
+
+//Represents the (text, size, color) of a cached text image
+//The text is a range of a char[] so a probe key can point at a word's own letters
+class TextKey {
+  /**
+   * FIELDS:
+   * - chars -> char[]
+   * - from -> int
+   * - len -> int
+   * - size -> int
+   * - color -> Color
+   * - hash -> int
+   * METHODS:
+   * - set(char[], int, int, int, Color) -> TextKey
+   * - copy() -> TextKey
+   * - computeHash() -> int
+   * - equals(Object) -> boolean
+   * - hashCode() -> int
+   * METHODS ON FIELDS:
+   * - color.equals(Object) -> boolean
+   * - color.hashCode() -> int
+   */
+
+  char[] chars;
+  int from;
+  int len;
+  int size;
+  Color color;
+  int hash;
+
+  TextKey(char[] chars, int from, int len, int size, Color color) {
+    this.chars = chars;
+    this.from = from;
+    this.len = len;
+    this.size = size;
+    this.color = color;
+    this.hash = this.computeHash();
+  }
+
+  //Points this key at 'chars[from..to)' with the given size and color, and returns it
+  TextKey set(char[] chars, int from, int to, int size, Color color) {
+    this.chars = chars;
+    this.from = from;
+    this.len = to - from;
+    this.size = size;
+    this.color = color;
+    this.hash = this.computeHash();
+    return this;
+  }
+
+  //Returns a key that owns a copy of this key's letters
+  TextKey copy() {
+    char[] own = new char[this.len];
+    System.arraycopy(this.chars, this.from, own, 0, this.len);
+    return new TextKey(own, 0, this.len, this.size, this.color);
+  }
+
+  //Hashes the letters, size and color
+  int computeHash() {
+    int h = 31 * this.size + this.color.hashCode();
+    for (int i = this.from; i < this.from + this.len; i++) {
+      h = 31 * h + this.chars[i];
+    }
+    return h;
+  }
+
+  //Two keys are equal if they have the same letters, size and color
+  public boolean equals(Object other) {
+    if (!(other instanceof TextKey)) {
+      return false;
+    }
+    TextKey that = (TextKey) other;
+    if (this.hash != that.hash || this.len != that.len || this.size != that.size
+        || !this.color.equals(that.color)) {
+      return false;
+    }
+    for (int i = 0; i < this.len; i++) {
+      if (this.chars[this.from + i] != that.chars[that.from + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //Returns the hash computed when the key was last set
+  public int hashCode() {
+    return this.hash;
+  }
+}
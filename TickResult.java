@@ -0,0 +1,21 @@
+//Represents the outcome of ILoWord.tick: the next list of words and whether
+//the list it was called on had a word past the bottom
+class TickResult {
+  /**
+   * FIELDS:
+   * - words -> ILoWord
+   * - gameOver -> boolean
+   * METHODS:
+   * - none -
+   * METHODS ON FIELDS:
+   * - none -
+   */
+  
+  ILoWord words;
+  boolean gameOver;
+  
+  TickResult(ILoWord words, boolean gameOver) {
+    this.words = words;
+    this.gameOver = gameOver;
+  }
+}
@@ -0,0 +1,83 @@
+//Represents the outcomes of every game of one config in a sweep, as parallel arrays
+//indexed by game, and their averages
+class TournamentResult {
+  /**
+   * FIELDS:
+   * - config -> GameConfig
+   * - ticks -> int[]
+   * - words -> int[]
+   * - keys -> int[]
+   * METHODS:
+   * - totalTicks() -> long
+   * - totalWords() -> long
+   * - totalKeys() -> long
+   * - survivalSeconds() -> double
+   * - wordsPerGame() -> double
+   * - keysPerSecond() -> double
+   * - summary() -> String
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  GameConfig config;
+  //each game is written by exactly one task, so no locking is needed
+  int[] ticks;
+  int[] words;
+  int[] keys;
+
+  TournamentResult(GameConfig config, int games) {
+    this.config = config;
+    this.ticks = new int[games];
+    this.words = new int[games];
+    this.keys = new int[games];
+  }
+
+  //Returns the ticks survived over every game
+  long totalTicks() {
+    long sum = 0;
+    for (int n : this.ticks) {
+      sum += n;
+    }
+    return sum;
+  }
+
+  //Returns the words finished over every game
+  long totalWords() {
+    long sum = 0;
+    for (int n : this.words) {
+      sum += n;
+    }
+    return sum;
+  }
+
+  //Returns the keys pressed over every game
+  long totalKeys() {
+    long sum = 0;
+    for (int n : this.keys) {
+      sum += n;
+    }
+    return sum;
+  }
+
+  //Returns the average time survived, in seconds of play
+  double survivalSeconds() {
+    return this.totalTicks() / this.config.ticksPerSecond / this.ticks.length;
+  }
+
+  //Returns the average words finished per game
+  double wordsPerGame() {
+    return (double) this.totalWords() / this.words.length;
+  }
+
+  //Returns the keys pressed per second of play, over every game
+  double keysPerSecond() {
+    long ticks = this.totalTicks();
+    return ticks == 0 ? 0 : this.totalKeys() * this.config.ticksPerSecond / ticks;
+  }
+
+  //Returns the config and its averages on one line
+  String summary() {
+    return String.format("%s: survived %.1fs, %.1f words, %.2f keys/s", this.config,
+        this.survivalSeconds(), this.wordsPerGame(), this.keysPerSecond());
+  }
+}
@@ -0,0 +1,169 @@
+import java.io.IOException;                    // for failures loading a dictionary
+import java.nio.file.Paths;                    // where a dictionary lives
+import java.util.ArrayList;                    // the summaries of a sweep
+import java.util.concurrent.ForkJoinPool;      // spreads the games over every core
+import java.util.concurrent.RecursiveAction;   // one range of games to play
+
+//Represents a batch of simulated ZType games played by bot typists, for tuning the
+//difficulty: every game in a sweep is independent, so they are split across a
+//ForkJoinPool, and every game draws its own seeds from one master seed up front, so
+//results do not depend on how the games were scheduled
+class TournamentRunner {
+  /**
+   * FIELDS:
+   * - pool -> ForkJoinPool
+   * - maxTicks -> int
+   * METHODS:
+   * - sweep(GameConfig[], BotTypist, int, long) -> ArrayList<TournamentResult>
+   * - play(GameConfig, BotTypist, long, long, TournamentResult, int) -> void
+   * - main(String[]) -> void
+   * METHODS ON FIELDS:
+   * - pool.invoke(ForkJoinTask) -> Object
+   */
+
+  ForkJoinPool pool;
+  //games still going after 'maxTicks' ticks are stopped and count as survived
+  int maxTicks;
+
+  TournamentRunner(ForkJoinPool pool, int maxTicks) {
+    this.pool = pool;
+    this.maxTicks = maxTicks;
+  }
+
+  //Makes a runner using every core
+  TournamentRunner(int maxTicks) {
+    this(ForkJoinPool.commonPool(), maxTicks);
+  }
+
+  //Plays 'games' games of every config in 'configs' with bots as skilled as 'bot',
+  //and returns one result per config, in order
+  //Game i of every config gets the i'th pair of seeds drawn from 'masterSeed', so
+  //configs are compared on the same words and the same typing mistakes
+  ArrayList<TournamentResult> sweep(GameConfig[] configs, BotTypist bot, int games,
+      long masterSeed) {
+    SplitMix64 root = new SplitMix64(masterSeed);
+    long[] wordSeeds = new long[games];
+    long[] botSeeds = new long[games];
+    for (int i = 0; i < games; i++) {
+      wordSeeds[i] = root.nextLong();
+      botSeeds[i] = root.nextLong();
+    }
+    ArrayList<TournamentResult> results = new ArrayList<TournamentResult>();
+    for (GameConfig config : configs) {
+      results.add(new TournamentResult(config, games));
+    }
+    this.pool.invoke(new TournamentTask(this, configs, bot, wordSeeds, botSeeds, results,
+        0, configs.length * games));
+    return results;
+  }
+
+  //Plays game 'game' of 'config', writing its outcome into 'result'
+  void play(GameConfig config, BotTypist skill, long wordSeed, long botSeed,
+      TournamentResult result, int game) {
+    ZTypeEngine engine = config.newEngine(wordSeed);
+    BotTypist bot = skill.reseeded(botSeed);
+    while (!engine.isOver() && engine.ticks < this.maxTicks) {
+      bot.typeFor(engine);
+      engine.tick();
+    }
+    result.ticks[game] = engine.ticks;
+    result.words[game] = bot.words;
+    result.keys[game] = bot.keys;
+  }
+
+  //Sweeps fall speeds and spawn rates around ZType's own (25 pixels and a word a tick)
+  //for a bot typing 3 keys a tick with 5% mistakes, and prints the results
+  //The words are generated, or drawn from the dictionary file given as the second argument
+  //With "offheap" as the last argument, every game keeps its words off the heap
+  public static void main(String[] args) throws IOException {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    boolean offHeap = args.length > 1 && args[args.length - 1].equals("offheap");
+    DictionaryWordSource dictionary = args.length > (offHeap ? 2 : 1)
+        ? new DictionaryWordSource(Paths.get(args[1]), 0) : null;
+    double[] falls = {15, 20, 25, 30, 35};
+    double[] spawns = {0.5, 0.75, 1, 1.25};
+    GameConfig[] configs = new GameConfig[falls.length * spawns.length];
+    for (int i = 0; i < falls.length; i++) {
+      for (int j = 0; j < spawns.length; j++) {
+        configs[i * spawns.length + j] = new GameConfig(1, falls[i], spawns[j], 3, 8, 600);
+        configs[i * spawns.length + j].dictionary = dictionary;
+        configs[i * spawns.length + j].offHeap = offHeap;
+      }
+    }
+    long start = System.nanoTime();
+    ArrayList<TournamentResult> results =
+        new TournamentRunner(10000).sweep(configs, new BotTypist(3, 0.05, 0), games, 42);
+    for (TournamentResult result : results) {
+      System.out.println(result.summary());
+    }
+    System.out.printf("%d games in %.1fs%n", configs.length * games,
+        (System.nanoTime() - start) / 1e9);
+  }
+}
+
+//Represents a range of a sweep's games, [from, to) over every config's games in turn,
+//split in half until small enough to play directly
+class TournamentTask extends RecursiveAction {
+  /**
+   * FIELDS:
+   * - runner -> TournamentRunner
+   * - configs -> GameConfig[]
+   * - bot -> BotTypist
+   * - wordSeeds -> long[]
+   * - botSeeds -> long[]
+   * - results -> ArrayList<TournamentResult>
+   * - from -> int
+   * - to -> int
+   * METHODS:
+   * - compute() -> void
+   * METHODS ON FIELDS:
+   * - runner.play(GameConfig, BotTypist, long, long, TournamentResult, int) -> void
+   */
+
+  //ForkJoinTask is Serializable, though tasks are never serialized, so the shared state
+  //that is not Serializable is transient
+  private static final long serialVersionUID = 1L;
+
+  //games played directly rather than split further
+  static final int LEAF = 8;
+
+  transient TournamentRunner runner;
+  transient GameConfig[] configs;
+  transient BotTypist bot;
+  long[] wordSeeds;
+  long[] botSeeds;
+  transient ArrayList<TournamentResult> results;
+  int from;
+  int to;
+
+  TournamentTask(TournamentRunner runner, GameConfig[] configs, BotTypist bot,
+      long[] wordSeeds, long[] botSeeds, ArrayList<TournamentResult> results,
+      int from, int to) {
+    this.runner = runner;
+    this.configs = configs;
+    this.bot = bot;
+    this.wordSeeds = wordSeeds;
+    this.botSeeds = botSeeds;
+    this.results = results;
+    this.from = from;
+    this.to = to;
+  }
+
+  //Plays the games in range, or splits the range in two and plays both halves
+  protected void compute() {
+    if (this.to - this.from <= LEAF) {
+      int games = this.wordSeeds.length;
+      for (int i = this.from; i < this.to; i++) {
+        int game = i % games;
+        this.runner.play(this.configs[i / games], this.bot, this.wordSeeds[game],
+            this.botSeeds[game], this.results.get(i / games), game);
+      }
+      return;
+    }
+    int mid = (this.from + this.to) >>> 1;
+    invokeAll(new TournamentTask(this.runner, this.configs, this.bot, this.wordSeeds,
+        this.botSeeds, this.results, this.from, mid),
+        new TournamentTask(this.runner, this.configs, this.bot, this.wordSeeds,
+            this.botSeeds, this.results, mid, this.to));
+  }
+}
@@ -0,0 +1,245 @@
+import java.io.IOException;         // for failures writing the summary
+import java.nio.file.Files;         // to write the summary
+import java.nio.file.Path;          // where the summary goes
+
+//Represents a streaming aggregation of a session's key presses: every press, with what
+//it did (a miss, a hit, a new word or a finished word) and when it was pressed, is
+//folded into fixed-size primitive counters, so memory stays constant however long the
+//session runs and recording a press allocates nothing
+//Kept are per-letter hits and misses (by the letter pressed, since a miss has no
+//intended letter), the mean time between consecutive presses for every pair of letters,
+//and a rolling count of correct presses over the last WINDOW seconds for words per
+//minute (a word being five correct presses)
+class TypingAnalytics {
+  /**
+   * FIELDS:
+   * - file -> Path
+   * - hits -> long[]
+   * - misses -> long[]
+   * - activations -> long
+   * - completions -> long
+   * - bigramNanos -> long[]
+   * - bigramCount -> int[]
+   * - lastLetter -> int
+   * - lastStamp -> long
+   * - firstStamp -> long
+   * - window -> int[]
+   * - windowSum -> int
+   * - second -> long
+   * METHODS:
+   * - letter(char) -> int
+   * - record(char, long, int) -> void
+   * - advanceTo(long) -> void
+   * - keys() -> long
+   * - totalMisses() -> long
+   * - accuracy(int) -> double
+   * - totalAccuracy() -> double
+   * - bigramMillis(char, char) -> double
+   * - rollingWpm() -> double
+   * - sessionWpm() -> double
+   * - summary() -> String
+   * - flush() -> void
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  //letters 'a' to 'z', then one slot for every other key
+  static final int LETTERS = 27;
+  //seconds in the rolling window
+  static final int WINDOW = 60;
+  //a longer gap between presses is a pause, not a bigram
+  static final long IDLE_NANOS = 2_000_000_000L;
+  //the slowest bigrams listed in the summary, and how often each must have been seen
+  static final int SLOWEST = 10;
+  static final int MIN_BIGRAMS = 3;
+
+  Path file;
+
+  long[] hits;
+  long[] misses;
+  long activations;
+  long completions;
+
+  //total time and count per pair, indexed by first letter * LETTERS + second letter
+  long[] bigramNanos;
+  int[] bigramCount;
+  int lastLetter;
+  long lastStamp;
+  long firstStamp;
+
+  //correct presses per second for the last WINDOW seconds, as a ring indexed by second
+  //% WINDOW, their sum, and the latest second counted, from the first press
+  int[] window;
+  int windowSum;
+  long second;
+
+  //Makes an empty aggregation whose summary is written to 'file'
+  TypingAnalytics(Path file) {
+    this.file = file;
+    this.hits = new long[LETTERS];
+    this.misses = new long[LETTERS];
+    this.activations = 0;
+    this.completions = 0;
+    this.bigramNanos = new long[LETTERS * LETTERS];
+    this.bigramCount = new int[LETTERS * LETTERS];
+    this.lastLetter = -1;
+    this.lastStamp = 0;
+    this.firstStamp = 0;
+    this.window = new int[WINDOW];
+    this.windowSum = 0;
+    this.second = 0;
+  }
+
+  //Returns the counter index of 'c'
+  int letter(char c) {
+    return c >= 'a' && c <= 'z' ? c - 'a' : LETTERS - 1;
+  }
+
+  //Counts a press of 'c' at 'stamp' (System.nanoTime) that did 'outcome' (one of
+  //WordPool's MISS, HIT, ACTIVATE or COMPLETE; anything else is ignored)
+  void record(char c, long stamp, int outcome) {
+    if (outcome < WordPool.MISS || outcome > WordPool.COMPLETE) {
+      return;
+    }
+    int l = this.letter(c);
+    if (this.lastLetter == -1) {
+      this.firstStamp = stamp;
+    }
+    else if (stamp - this.lastStamp < IDLE_NANOS) {
+      int pair = this.lastLetter * LETTERS + l;
+      this.bigramNanos[pair] += Math.max(0, stamp - this.lastStamp);
+      this.bigramCount[pair]++;
+    }
+    this.lastLetter = l;
+    this.lastStamp = stamp;
+    if (outcome == WordPool.MISS) {
+      this.misses[l]++;
+      return;
+    }
+    this.hits[l]++;
+    if (outcome == WordPool.ACTIVATE) {
+      this.activations++;
+    }
+    else if (outcome == WordPool.COMPLETE) {
+      this.completions++;
+    }
+    this.advanceTo(Math.max(0, stamp - this.firstStamp) / 1_000_000_000L);
+    this.window[(int) (this.second % WINDOW)]++;
+    this.windowSum++;
+  }
+
+  //Moves the window on to second 's', clearing the seconds it passes over
+  //Presses stamped earlier than the latest second are counted in the latest second
+  void advanceTo(long s) {
+    long gap = Math.min(s - this.second, WINDOW);
+    for (long k = 1; k <= gap; k++) {
+      int i = (int) ((this.second + k) % WINDOW);
+      this.windowSum -= this.window[i];
+      this.window[i] = 0;
+    }
+    this.second = Math.max(this.second, s);
+  }
+
+  //Returns the presses counted
+  long keys() {
+    long sum = 0;
+    for (int l = 0; l < LETTERS; l++) {
+      sum += this.hits[l] + this.misses[l];
+    }
+    return sum;
+  }
+
+  //Returns the fraction of presses of letter 'l' that hit, or 1 if it was never pressed
+  double accuracy(int l) {
+    long n = this.hits[l] + this.misses[l];
+    return n == 0 ? 1 : (double) this.hits[l] / n;
+  }
+
+  //Returns the fraction of every press that hit, or 1 if nothing was pressed
+  double totalAccuracy() {
+    long n = this.keys();
+    long hit = 0;
+    for (int l = 0; l < LETTERS; l++) {
+      hit += this.hits[l];
+    }
+    return n == 0 ? 1 : (double) hit / n;
+  }
+
+  //Returns the mean time from a press of 'a' to a press of 'b' just after it, in
+  //milliseconds, or 0 if that never happened
+  double bigramMillis(char a, char b) {
+    int pair = this.letter(a) * LETTERS + this.letter(b);
+    return this.bigramCount[pair] == 0 ? 0
+        : this.bigramNanos[pair] / 1e6 / this.bigramCount[pair];
+  }
+
+  //Returns the words per minute over the last WINDOW seconds, or since the first press
+  //if that was more recent
+  double rollingWpm() {
+    long seconds = Math.min(WINDOW, this.second + 1);
+    return this.windowSum / 5.0 * 60 / seconds;
+  }
+
+  //Returns the words per minute from the first press to the last (counting at least a
+  //second)
+  double sessionWpm() {
+    if (this.lastLetter == -1) {
+      return 0;
+    }
+    double minutes = Math.max(1e9, this.lastStamp - this.firstStamp) / 60e9;
+    return (this.keys() - this.totalMisses()) / 5.0 / minutes;
+  }
+
+  //Returns the misses counted
+  long totalMisses() {
+    long sum = 0;
+    for (long n : this.misses) {
+      sum += n;
+    }
+    return sum;
+  }
+
+  //Returns the totals, then every pressed letter's accuracy, then the slowest bigrams
+  String summary() {
+    StringBuilder out = new StringBuilder();
+    out.append(String.format("keys=%d misses=%d accuracy=%.1f%% words started=%d "
+        + "finished=%d wpm=%.1f rolling=%.1f%n", this.keys(), this.totalMisses(),
+        this.totalAccuracy() * 100, this.activations, this.completions,
+        this.sessionWpm(), this.rollingWpm()));
+    for (int l = 0; l < LETTERS; l++) {
+      if (this.hits[l] + this.misses[l] > 0) {
+        out.append(String.format("%c hits=%d misses=%d accuracy=%.1f%%%n",
+            l < LETTERS - 1 ? (char) ('a' + l) : '?', this.hits[l], this.misses[l],
+            this.accuracy(l) * 100));
+      }
+    }
+    //the SLOWEST pairs by mean time, picked one at a time from the counters
+    boolean[] listed = new boolean[LETTERS * LETTERS];
+    for (int k = 0; k < SLOWEST; k++) {
+      int slowest = -1;
+      for (int pair = 0; pair < listed.length; pair++) {
+        if (!listed[pair] && this.bigramCount[pair] >= MIN_BIGRAMS && (slowest == -1
+            || this.bigramNanos[pair] / this.bigramCount[pair]
+              > this.bigramNanos[slowest] / this.bigramCount[slowest])) {
+          slowest = pair;
+        }
+      }
+      if (slowest == -1) {
+        break;
+      }
+      listed[slowest] = true;
+      int a = slowest / LETTERS;
+      int b = slowest % LETTERS;
+      out.append(String.format("%c%c %.1fms n=%d%n",
+          a < LETTERS - 1 ? (char) ('a' + a) : '?', b < LETTERS - 1 ? (char) ('a' + b) : '?',
+          this.bigramNanos[slowest] / 1e6 / this.bigramCount[slowest],
+          this.bigramCount[slowest]));
+    }
+    return out.toString();
+  }
+
+  //Writes the summary to the file, replacing what was there
+  void flush() throws IOException {
+    Files.write(this.file, this.summary().getBytes());
+  }
+}
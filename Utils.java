@@ -0,0 +1,32 @@
+import java.util.Random;        // where the letters come from
+
+//Represents a static class that produces random words of length 6
+class Utils {
+  /**
+   * FIELDS:
+   * - rand -> Random
+   * METHODS:
+   * - makeWord(String, int) -> String
+   * METHODS ON FIELDS:
+   * - rand.NextInt(int) -> int
+   */
+  
+  Random rand;
+  
+  Utils(Random rand) {
+    this.rand = rand;
+  }
+  
+  //Makes a new string starting with 'acc' (should be an empty string for initial call)
+  //String is 'letters' characters long, all randomly selected from the alphabet
+  //Draws one extra random letter at the end, as the recursive version did, so seeded
+  //words stay the same
+  String makeWord(String acc, int letters) {
+    char[] chars = new char[letters];
+    for (int i = 0; i < letters; i++) {
+      chars[i] = WordGenerator.ALPHABET.charAt(rand.nextInt(26));
+    }
+    rand.nextInt(26);
+    return acc.concat(new String(chars));
+  }
+}
@@ -0,0 +1,100 @@
+//Represents a seeded source of random lowercase words and spawn positions
+//Words are generated in batches into a ring buffer of primitive chars ahead of demand,
+//using the SplitMix64 generator, so the same seed always produces the same words
+class WordGenerator implements IWordSource {
+  /**
+   * FIELDS:
+   * - rng -> SplitMix64
+   * - minLen -> int
+   * - maxLen -> int
+   * - minX -> int
+   * - maxX -> int
+   * - letters -> char[]
+   * - lens -> int[]
+   * - xs -> int[]
+   * - head -> int
+   * - size -> int
+   * METHODS:
+   * - refill() -> void
+   * - take() -> int
+   * - nextInto(IWordStore, int) -> int
+   * - nextString() -> String
+   * METHODS ON FIELDS:
+   * - rng.nextInt(int) -> int
+   */
+
+  static final int BATCH = 64;
+  static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+  SplitMix64 rng;
+  int minLen;
+  int maxLen;
+  int minX;
+  int maxX;
+
+  //ring of BATCH pre-generated words, each with maxLen chars of room in 'letters'
+  char[] letters;
+  int[] lens;
+  int[] xs;
+  int head;
+  int size;
+
+  WordGenerator(long seed, int minLen, int maxLen, int minX, int maxX) {
+    this.rng = new SplitMix64(seed);
+    this.minLen = minLen;
+    this.maxLen = maxLen;
+    this.minX = minX;
+    this.maxX = maxX;
+    this.letters = new char[BATCH * maxLen];
+    this.lens = new int[BATCH];
+    this.xs = new int[BATCH];
+    this.head = 0;
+    this.size = 0;
+  }
+
+  //Makes a generator with ZType's spawn rules: 3 to 8 letters, x between 60 and 550
+  WordGenerator(long seed) {
+    this(seed, 3, 8, 60, 550);
+  }
+
+  //Tops the ring up to a full batch of words
+  void refill() {
+    while (this.size < BATCH) {
+      int i = (this.head + this.size) % BATCH;
+      int n = this.minLen + this.rng.nextInt(this.maxLen - this.minLen + 1);
+      int start = i * this.maxLen;
+      for (int k = 0; k < n; k++) {
+        this.letters[start + k] = ALPHABET.charAt(this.rng.nextInt(26));
+      }
+      this.lens[i] = n;
+      this.xs[i] = this.minX + this.rng.nextInt(this.maxX - this.minX);
+      this.size++;
+    }
+  }
+
+  //Removes the oldest word from the ring and returns its index, refilling the ring
+  //a whole batch at a time once it is half empty
+  int take() {
+    if (this.size <= BATCH / 2) {
+      this.refill();
+    }
+    int i = this.head;
+    this.head = (this.head + 1) % BATCH;
+    this.size--;
+    return i;
+  }
+
+  //Adds the next word to the end of 'store' at height 'y' without allocating,
+  //and returns its slot
+  public int nextInto(IWordStore store, int y) {
+    int i = this.take();
+    int start = i * this.maxLen;
+    return store.add(this.letters, start, start + this.lens[i], this.xs[i], y, false);
+  }
+
+  //Returns the letters of the next word
+  String nextString() {
+    int i = this.take();
+    return new String(this.letters, i * this.maxLen, this.lens[i]);
+  }
+}
@@ -0,0 +1,846 @@
+import java.util.Arrays;          // for growing the parallel arrays
+
+//Represents a mutable pool of words stored as parallel arrays (struct-of-arrays)
+//Slots are recycled through a free-list, and 'order' keeps the live slots in list order,
+//so appending, compacting and moving words never allocates once the pool has grown
+class WordPool implements IWordStore {
+  /**
+   * FIELDS:
+   * - x -> int[]
+   * - y -> int[]
+   * - yFrac -> int[]
+   * - vy -> int[]
+   * - defaultVelocity -> int
+   * - rowHead -> int[]
+   * - nextInRow -> int[]
+   * - prevInRow -> int[]
+   * - rowOf -> int[]
+   * - rowMask -> long
+   * - text -> char[][]
+   * - len -> int[]
+   * - typed -> int[]
+   * - active -> boolean[]
+   * - free -> int[]
+   * - freeCount -> int
+   * - order -> int[]
+   * - count -> int
+   * - bucketHead -> int[]
+   * - bucketTail -> int[]
+   * - nextInBucket -> int[]
+   * - prevInBucket -> int[]
+   * - trie -> WordTrie
+   * - activeSlot -> int
+   * - activeCount -> int
+   * - generation -> int[]
+   * - changedIn -> int[]
+   * - frame -> int
+   * - changes -> int
+   * - removed -> int
+   * - added -> long
+   * - released -> long
+   * - claims -> long
+   * - claimMisses -> long
+   * METHODS:
+   * - add(String, int, int, boolean) -> int
+   * - add(char[], int, int, int, int, boolean) -> int
+   * - setDefaultVelocity(int) -> void
+   * - claim(int) -> int
+   * - reserve(int, int) -> void
+   * - capacity() -> int
+   * - missRate() -> double
+   * - fill(int, int, int, int, boolean) -> int
+   * - checkAndReduce(char) -> int
+   * - filterOutEmpties() -> void
+   * - move(int) -> void
+   * - touchBottom(int) -> boolean
+   * - activateWord(char) -> void
+   * - hasActive() -> boolean
+   * - onlyActive() -> int
+   * - nextLetter(int) -> char
+   * - size() -> int
+   * - slotAt(int) -> int
+   * - remaining(int) -> String
+   * - matches(int, char) -> boolean
+   * - isEmpty(int) -> boolean
+   * - tick(int, int) -> boolean
+   * - type(char, boolean) -> void
+   * - typeKey(char) -> int
+   * - usePrefixTargeting() -> void
+   * - typeByPrefix(char) -> int
+   * - typeAll(char[], int) -> void
+   * - bucket(char) -> int
+   * - link(int) -> void
+   * - unlink(int) -> void
+   * - firstStartingWith(char) -> int
+   * - activate(int) -> void
+   * - release(int) -> void
+   * - touch(int) -> void
+   * - endFrame() -> int
+   * - step() -> void
+   * - stepSlot(int) -> void
+   * - row(int) -> int
+   * - rowLink(int) -> void
+   * - rowUnlink(int) -> void
+   * - reindex(int) -> void
+   * - lowest() -> int
+   * - anyPast(int) -> boolean
+   * - halfWidth(int) -> int
+   * - clearOf(int, int) -> int
+   * - placeClear(int, int, int) -> boolean
+   * METHODS ON FIELDS:
+   * - trie.insert(WordPool, int) -> void
+   * - trie.remove(int) -> void
+   * - trie.step(char) -> int
+   * - trie.firstEndingHere() -> int
+   * - trie.onlyCandidate() -> int
+   * - trie.reset() -> void
+   */
+
+  int[] x;
+  int[] y;
+  char[][] text;
+
+  //sub-pixel position and velocity, in units of 1/FIXED_ONE of a pixel, so each word
+  //falls at its own rate under a fixed-timestep loop
+  static final int FIXED_ONE = 1 << 16;
+  int[] yFrac;
+  int[] vy;
+  //the velocity given to words as they are added
+  int defaultVelocity;
+
+  //each word's length, and how many of its letters have been typed: typing a letter
+  //moves this offset along 'text' instead of copying the rest into a new String
+  int[] len;
+  int[] typed;
+  boolean[] active;
+
+  //stack of unused slots
+  int[] free;
+  int freeCount;
+
+  //live slots in list order
+  int[] order;
+  int count;
+
+  //inactive words by first letter, so a key press looks up the words it could start
+  //instead of scanning every word: one bucket per letter 'a'-'z' plus one for anything
+  //else, each a doubly-linked list of slots in list order (-1 terminated)
+  int[] bucketHead;
+  int[] bucketTail;
+  int[] nextInBucket;
+  int[] prevInBucket;
+  //inactive words by their whole text, when targeting by prefix (see WordTrie), or null
+  WordTrie trie;
+
+  //the active word, or -1 if there is none or more than one
+  int activeSlot;
+  int activeCount;
+
+  //how many times each slot has been filled, so a slot holding a new word can be told
+  //apart from the word that held it before
+  int[] generation;
+  //the frame in which each slot last changed, so a renderer can tell which words moved,
+  //changed or were removed since it last drew the pool
+  int[] changedIn;
+  //the frame being built, the total number of changes so far, and how many words were
+  //removed since the frame began
+  int frame;
+  int changes;
+  int removed;
+  //how many words were added and released over the pool's whole life
+  long added;
+  long released;
+  //how many slots were claimed, and how many of those claims had to allocate: grow
+  //the pool or give the slot bigger character storage
+  long claims;
+  long claimMisses;
+
+  //live words by row, so finding the lowest word, any word past a height, or a clear
+  //spot for a new word only looks at a few rows instead of every word: ROWS
+  //doubly-linked lists of slots (-1 terminated), the row each slot is in, and bit r of
+  //'rowMask' set when row r has any words
+  //Rows above the screen share row 0 and rows below ROWS share the last row
+  static final int ROW_SHIFT = 5;
+  static final int ROW_HEIGHT = 1 << ROW_SHIFT;
+  static final int ROWS = 64;
+  int[] rowHead;
+  int[] nextInRow;
+  int[] prevInRow;
+  int[] rowOf;
+  long rowMask;
+
+  //the size words are drawn at: how tall a line is and roughly how wide a letter is
+  static final int LINE_HEIGHT = 35;
+  static final int LETTER_WIDTH = 20;
+  //how many times placeClear may move a word before giving up
+  static final int PLACE_TRIES = 16;
+
+  //what a key press did (see typeKey)
+  static final int MISS = 0;
+  static final int HIT = 1;
+  static final int ACTIVATE = 2;
+  static final int COMPLETE = 3;
+
+  WordPool(int capacity) {
+    this.x = new int[capacity];
+    this.y = new int[capacity];
+    this.yFrac = new int[capacity];
+    this.vy = new int[capacity];
+    this.defaultVelocity = 25 * FIXED_ONE;
+    this.text = new char[capacity][];
+    this.len = new int[capacity];
+    this.typed = new int[capacity];
+    this.active = new boolean[capacity];
+    this.free = new int[capacity];
+    this.order = new int[capacity];
+    this.count = 0;
+    //slots are handed out lowest-first
+    for (int i = 0; i < capacity; i++) {
+      this.free[i] = capacity - 1 - i;
+    }
+    this.freeCount = capacity;
+    this.bucketHead = new int[27];
+    this.bucketTail = new int[27];
+    Arrays.fill(this.bucketHead, -1);
+    Arrays.fill(this.bucketTail, -1);
+    this.nextInBucket = new int[capacity];
+    this.prevInBucket = new int[capacity];
+    this.trie = null;
+    this.activeSlot = -1;
+    this.activeCount = 0;
+    this.generation = new int[capacity];
+    this.changedIn = new int[capacity];
+    this.frame = 0;
+    this.changes = 0;
+    this.removed = 0;
+    this.added = 0;
+    this.released = 0;
+    this.claims = 0;
+    this.claimMisses = 0;
+    this.rowHead = new int[ROWS];
+    Arrays.fill(this.rowHead, -1);
+    this.nextInRow = new int[capacity];
+    this.prevInRow = new int[capacity];
+    this.rowOf = new int[capacity];
+    this.rowMask = 0;
+  }
+
+  //Adds a word to the end of the pool and returns the slot it was stored in
+  //The slot's character storage is reused when it is large enough
+  public int add(String word, int x, int y, boolean active) {
+    int n = word.length();
+    int slot = this.claim(n);
+    word.getChars(0, n, this.text[slot], 0);
+    return this.fill(slot, n, x, y, active);
+  }
+
+  //Adds the letters 'chars[from..to)' to the end of the pool and returns their slot
+  public int add(char[] chars, int from, int to, int x, int y, boolean active) {
+    int n = to - from;
+    int slot = this.claim(n);
+    System.arraycopy(chars, from, this.text[slot], 0, n);
+    return this.fill(slot, n, x, y, active);
+  }
+
+  //Sets the velocity given to words as they are added
+  public void setDefaultVelocity(int velocity) {
+    this.defaultVelocity = velocity;
+  }
+
+  //Takes a slot off the free-list whose character storage holds at least 'n' letters
+  //A released slot keeps its storage, and fill resets everything else, so a game whose
+  //population and word lengths stay within what it has seen allocates nothing
+  int claim(int n) {
+    this.claims++;
+    boolean miss = false;
+    if (this.freeCount == 0) {
+      this.grow();
+      miss = true;
+    }
+    int slot = this.free[--this.freeCount];
+    if (this.text[slot] == null || this.text[slot].length < n) {
+      this.text[slot] = new char[Math.max(n, 8)];
+      miss = true;
+    }
+    if (miss) {
+      this.claimMisses++;
+    }
+    return slot;
+  }
+
+  //Grows the pool to hold at least 'words' words and gives every free slot storage for
+  //at least 'letters' letters, so claims up to those sizes never allocate
+  void reserve(int words, int letters) {
+    while (this.x.length < words) {
+      this.grow();
+    }
+    for (int i = 0; i < this.freeCount; i++) {
+      int slot = this.free[i];
+      if (this.text[slot] == null || this.text[slot].length < letters) {
+        this.text[slot] = new char[Math.max(letters, 8)];
+      }
+    }
+  }
+
+  //Returns how many words the pool can hold before it grows
+  int capacity() {
+    return this.x.length;
+  }
+
+  //Returns the fraction of claims that had to allocate, or 0 if there were none
+  double missRate() {
+    return this.claims == 0 ? 0 : (double) this.claimMisses / this.claims;
+  }
+
+  //Sets up the rest of a claimed slot holding 'n' letters and appends it to the list
+  int fill(int slot, int n, int x, int y, boolean active) {
+    this.len[slot] = n;
+    this.typed[slot] = 0;
+    this.x[slot] = x;
+    this.y[slot] = y;
+    this.yFrac[slot] = 0;
+    this.vy[slot] = this.defaultVelocity;
+    this.active[slot] = false;
+    this.order[this.count++] = slot;
+    this.rowLink(slot);
+    this.generation[slot]++;
+    this.added++;
+    this.touch(slot);
+    if (active) {
+      this.activate(slot);
+    }
+    else if (n > 0) {
+      this.link(slot);
+    }
+    return slot;
+  }
+
+  //Doubles the capacity of every array, putting the new slots on the free-list
+  void grow() {
+    int old = this.x.length;
+    int cap = Math.max(old * 2, 4);
+    this.x = Arrays.copyOf(this.x, cap);
+    this.y = Arrays.copyOf(this.y, cap);
+    this.yFrac = Arrays.copyOf(this.yFrac, cap);
+    this.vy = Arrays.copyOf(this.vy, cap);
+    this.text = Arrays.copyOf(this.text, cap);
+    this.len = Arrays.copyOf(this.len, cap);
+    this.typed = Arrays.copyOf(this.typed, cap);
+    this.active = Arrays.copyOf(this.active, cap);
+    this.order = Arrays.copyOf(this.order, cap);
+    this.free = Arrays.copyOf(this.free, cap);
+    this.nextInBucket = Arrays.copyOf(this.nextInBucket, cap);
+    this.prevInBucket = Arrays.copyOf(this.prevInBucket, cap);
+    this.generation = Arrays.copyOf(this.generation, cap);
+    this.changedIn = Arrays.copyOf(this.changedIn, cap);
+    this.nextInRow = Arrays.copyOf(this.nextInRow, cap);
+    this.prevInRow = Arrays.copyOf(this.prevInRow, cap);
+    this.rowOf = Arrays.copyOf(this.rowOf, cap);
+    for (int i = cap - 1; i >= old; i--) {
+      this.free[this.freeCount++] = i;
+    }
+  }
+
+  //Returns true if the remaining text of the word in 'slot' starts with 'c'
+  boolean matches(int slot, char c) {
+    return this.typed[slot] < this.len[slot] && this.text[slot][this.typed[slot]] == c;
+  }
+
+  //Returns true if every letter of the word in 'slot' has been typed
+  public boolean isEmpty(int slot) {
+    return this.typed[slot] == this.len[slot];
+  }
+
+  //Returns the index bucket for words starting with 'c'
+  int bucket(char c) {
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a';
+    }
+    return 26;
+  }
+
+  //Appends the inactive word in 'slot' to the tail of its first-letter bucket
+  void link(int slot) {
+    int b = this.bucket(this.text[slot][0]);
+    this.prevInBucket[slot] = this.bucketTail[b];
+    this.nextInBucket[slot] = -1;
+    if (this.bucketTail[b] == -1) {
+      this.bucketHead[b] = slot;
+    }
+    else {
+      this.nextInBucket[this.bucketTail[b]] = slot;
+    }
+    this.bucketTail[b] = slot;
+    if (this.trie != null) {
+      this.trie.insert(this, slot);
+    }
+  }
+
+  //Removes the word in 'slot' from its first-letter bucket
+  void unlink(int slot) {
+    int b = this.bucket(this.text[slot][0]);
+    int prev = this.prevInBucket[slot];
+    int next = this.nextInBucket[slot];
+    if (prev == -1) {
+      this.bucketHead[b] = next;
+    }
+    else {
+      this.nextInBucket[prev] = next;
+    }
+    if (next == -1) {
+      this.bucketTail[b] = prev;
+    }
+    else {
+      this.prevInBucket[next] = prev;
+    }
+    if (this.trie != null) {
+      this.trie.remove(slot);
+    }
+  }
+
+  //Returns the first inactive word in list order that starts with 'c', or -1
+  //Only the catch-all bucket has to compare letters
+  int firstStartingWith(char c) {
+    int slot = this.bucketHead[this.bucket(c)];
+    while (slot != -1 && this.text[slot][0] != c) {
+      slot = this.nextInBucket[slot];
+    }
+    return slot;
+  }
+
+  //Marks the word in 'slot' active, taking it out of the first-letter index
+  void activate(int slot) {
+    if (!this.active[slot]) {
+      if (this.len[slot] > 0) {
+        this.unlink(slot);
+      }
+      this.active[slot] = true;
+      this.touch(slot);
+      this.activeCount++;
+      this.activeSlot = this.activeCount == 1 ? slot : -1;
+    }
+  }
+
+  //Puts 'slot' back on the free-list, dropping it from the active cache
+  void release(int slot) {
+    if (this.active[slot]) {
+      this.active[slot] = false;
+      this.activeCount--;
+      if (this.activeSlot == slot) {
+        this.activeSlot = -1;
+      }
+    }
+    else if (this.len[slot] > 0) {
+      this.unlink(slot);
+    }
+    this.rowUnlink(slot);
+    this.free[this.freeCount++] = slot;
+    this.removed++;
+    this.released++;
+    this.changes++;
+  }
+
+  //Records that the word in 'slot' changed during the current frame
+  void touch(int slot) {
+    this.changedIn[slot] = this.frame;
+    this.changes++;
+  }
+
+  //Finishes the current frame and returns how many words were removed during it
+  int endFrame() {
+    int gone = this.removed;
+    this.removed = 0;
+    this.frame++;
+    return gone;
+  }
+
+  //Removes the first remaining letter of every active word that starts with 'c', and
+  //returns how many words that was
+  int checkAndReduce(char c) {
+    int reduced = 0;
+    if (this.activeSlot != -1) {
+      if (this.matches(this.activeSlot, c)) {
+        this.typed[this.activeSlot]++;
+        this.touch(this.activeSlot);
+        reduced++;
+      }
+    }
+    else if (this.activeCount > 0) {
+      for (int i = 0; i < this.count; i++) {
+        int slot = this.order[i];
+        if (this.active[slot] && this.matches(slot, c)) {
+          this.typed[slot]++;
+          this.touch(slot);
+          reduced++;
+        }
+      }
+    }
+    return reduced;
+  }
+
+  //Releases every empty word back to the free-list, compacting 'order' in a single pass
+  void filterOutEmpties() {
+    int kept = 0;
+    for (int i = 0; i < this.count; i++) {
+      int slot = this.order[i];
+      if (this.isEmpty(slot)) {
+        this.release(slot);
+      }
+      else {
+        this.order[kept++] = slot;
+      }
+    }
+    this.count = kept;
+  }
+
+  //Moves every word 'dy' pixels towards the bottom of the screen
+  void move(int dy) {
+    for (int i = 0; i < this.count; i++) {
+      this.y[this.order[i]] += dy;
+      this.reindex(this.order[i]);
+      this.touch(this.order[i]);
+    }
+  }
+
+  //Returns true if any word has passed the given height
+  boolean touchBottom(int height) {
+    return this.anyPast(height);
+  }
+
+  //Activates the first word starting with 'c' that has no active word at or after it,
+  //which is the same word ConsLoWord.activateWord picks
+  //With no active word that is just the head of the letter's bucket
+  void activateWord(char c) {
+    if (this.activeCount == 0) {
+      int slot = this.firstStartingWith(c);
+      if (slot != -1) {
+        this.activate(slot);
+      }
+      return;
+    }
+    int lastActive = -1;
+    for (int i = 0; i < this.count; i++) {
+      if (this.active[this.order[i]]) {
+        lastActive = i;
+      }
+    }
+    for (int i = lastActive + 1; i < this.count; i++) {
+      int slot = this.order[i];
+      if (this.matches(slot, c)) {
+        this.activate(slot);
+        return;
+      }
+    }
+  }
+
+  //Returns true if any word in the pool is active
+  public boolean hasActive() {
+    return this.activeCount > 0;
+  }
+
+  //Returns the slot of the active word, or -1 if there is none or more than one
+  public int onlyActive() {
+    return this.activeSlot;
+  }
+
+  //Returns the next letter to type of the word in 'slot'
+  public char nextLetter(int slot) {
+    return this.text[slot][this.typed[slot]];
+  }
+
+  //Runs one tick in a single pass: frees empty words, moves the rest 'dy' pixels down
+  //and returns true if any word (empty or not) had already passed 'height'
+  boolean tick(int height, int dy) {
+    boolean touched = false;
+    int kept = 0;
+    for (int i = 0; i < this.count; i++) {
+      int slot = this.order[i];
+      touched = touched || this.y[slot] >= height;
+      if (this.isEmpty(slot)) {
+        this.release(slot);
+      }
+      else {
+        this.y[slot] += dy;
+        this.reindex(slot);
+        this.touch(slot);
+        this.order[kept++] = slot;
+      }
+    }
+    this.count = kept;
+    return touched;
+  }
+
+  //Runs one fixed-timestep step in a single pass: frees empty words and moves the rest
+  //by their own velocity
+  public void step() {
+    int kept = 0;
+    for (int i = 0; i < this.count; i++) {
+      int slot = this.order[i];
+      if (this.isEmpty(slot)) {
+        this.release(slot);
+      }
+      else {
+        this.stepSlot(slot);
+        this.order[kept++] = slot;
+      }
+    }
+    this.count = kept;
+  }
+
+  //Moves the word in 'slot' by one step of its velocity, carrying whole pixels out of
+  //its fraction
+  //The word itself is touched (re-stamped and re-rowed) only when its whole-pixel y
+  //changes; any movement at all still adds to the pool's 'changes', since a frame drawn
+  //between steps shows the fraction too
+  public void stepSlot(int slot) {
+    int fixed = this.yFrac[slot] + this.vy[slot];
+    int dy = fixed >> 16;
+    this.yFrac[slot] = fixed & (FIXED_ONE - 1);
+    if (dy != 0) {
+      this.y[slot] += dy;
+      this.reindex(slot);
+      this.touch(slot);
+    }
+    else if (this.vy[slot] != 0) {
+      this.changes++;
+    }
+  }
+
+  //Returns the row a word at height 'y' belongs in
+  int row(int y) {
+    return Math.max(0, Math.min(ROWS - 1, y >> ROW_SHIFT));
+  }
+
+  //Adds 'slot' to the front of the row its height belongs in
+  void rowLink(int slot) {
+    int r = this.row(this.y[slot]);
+    int head = this.rowHead[r];
+    this.prevInRow[slot] = -1;
+    this.nextInRow[slot] = head;
+    if (head != -1) {
+      this.prevInRow[head] = slot;
+    }
+    this.rowHead[r] = slot;
+    this.rowOf[slot] = r;
+    this.rowMask |= 1L << r;
+  }
+
+  //Removes 'slot' from its row
+  void rowUnlink(int slot) {
+    int r = this.rowOf[slot];
+    int prev = this.prevInRow[slot];
+    int next = this.nextInRow[slot];
+    if (prev == -1) {
+      this.rowHead[r] = next;
+    }
+    else {
+      this.nextInRow[prev] = next;
+    }
+    if (next != -1) {
+      this.prevInRow[next] = prev;
+    }
+    if (this.rowHead[r] == -1) {
+      this.rowMask &= ~(1L << r);
+    }
+  }
+
+  //Moves 'slot' to another row if its height has left its current one
+  void reindex(int slot) {
+    if (this.row(this.y[slot]) != this.rowOf[slot]) {
+      this.rowUnlink(slot);
+      this.rowLink(slot);
+    }
+  }
+
+  //Returns the slot of the word nearest the bottom, or -1 if the pool is empty
+  //Only the lowest row in use is searched
+  public int lowest() {
+    if (this.rowMask == 0) {
+      return -1;
+    }
+    int best = -1;
+    for (int s = this.rowHead[63 - Long.numberOfLeadingZeros(this.rowMask)]; s != -1;
+        s = this.nextInRow[s]) {
+      if (best == -1 || this.y[s] > this.y[best]) {
+        best = s;
+      }
+    }
+    return best;
+  }
+
+  //Returns true if any word is at or past 'height'
+  //Any word in a row below the height's own row is past it, so only that row is searched
+  public boolean anyPast(int height) {
+    int r = this.row(height);
+    if ((this.rowMask >>> r) >>> 1 != 0) {
+      return true;
+    }
+    for (int s = this.rowHead[r]; s != -1; s = this.nextInRow[s]) {
+      if (this.y[s] >= height) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //Returns roughly half the drawn width of the remaining text of the word in 'slot'
+  int halfWidth(int slot) {
+    return (this.len[slot] - this.typed[slot]) * LETTER_WIDTH / 2;
+  }
+
+  //Returns -1 if the word in 'slot' would overlap no other word when centered at 'x',
+  //or else the nearest x to its right that clears every word it would overlap
+  //Only the rows within a line's height of the word are searched
+  int clearOf(int slot, int x) {
+    int y = this.y[slot];
+    int half = this.halfWidth(slot);
+    int right = -1;
+    for (int r = this.row(y - LINE_HEIGHT + 1); r <= this.row(y + LINE_HEIGHT - 1); r++) {
+      for (int s = this.rowHead[r]; s != -1; s = this.nextInRow[s]) {
+        int gap = half + this.halfWidth(s);
+        if (s != slot && Math.abs(this.y[s] - y) < LINE_HEIGHT
+            && Math.abs(this.x[s] - x) < gap) {
+          right = Math.max(right, this.x[s] + gap);
+        }
+      }
+    }
+    return right;
+  }
+
+  //Moves the word in 'slot' to the nearest x in 'minX..maxX', searching right and then
+  //wrapping around, where it overlaps no other word
+  //Returns false, leaving the word where it was, if there is no such x, or if none is
+  //found in PLACE_TRIES moves (so a crowded top of the screen costs a bounded search)
+  public boolean placeClear(int slot, int minX, int maxX) {
+    int start = this.x[slot];
+    int x = start;
+    boolean wrapped = false;
+    for (int tries = 0; tries < PLACE_TRIES; tries++) {
+      int right = this.clearOf(slot, x);
+      if (right == -1) {
+        if (x != start) {
+          this.x[slot] = x;
+          this.touch(slot);
+        }
+        return true;
+      }
+      x = right;
+      if (x > maxX) {
+        if (wrapped) {
+          return false;
+        }
+        wrapped = true;
+        x = minX;
+      }
+      else if (wrapped && x >= start) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  //Handles one key press: reduces the active words starting with 'c', or if there is no
+  //active word (and 'anyActive' is false), activates and reduces the first word starting
+  //with 'c'
+  public void type(char c, boolean anyActive) {
+    if (this.activeCount > 0 || !anyActive) {
+      this.typeKey(c);
+    }
+  }
+
+  //Handles one key press like type(c, false), and returns what it did: MISS (nothing),
+  //HIT (reduced the active word, or narrowed a typed prefix), ACTIVATE (started a new
+  //word) or COMPLETE (typed the last letter of the active word)
+  public int typeKey(char c) {
+    if (this.activeCount > 0) {
+      if (this.checkAndReduce(c) == 0) {
+        return MISS;
+      }
+      return this.activeSlot != -1 && this.isEmpty(this.activeSlot) ? COMPLETE : HIT;
+    }
+    if (this.trie != null) {
+      return this.typeByPrefix(c);
+    }
+    int slot = this.firstStartingWith(c);
+    if (slot == -1) {
+      return MISS;
+    }
+    this.activate(slot);
+    this.typed[slot]++;
+    this.touch(slot);
+    return this.isEmpty(slot) ? COMPLETE : ACTIVATE;
+  }
+
+  //Targets words by the prefix typed so far from now on, instead of activating the first
+  //word starting with the first letter typed
+  public void usePrefixTargeting() {
+    this.trie = new WordTrie(this.capacity());
+    for (int i = 0; i < this.count; i++) {
+      int slot = this.order[i];
+      if (!this.active[slot] && this.len[slot] > 0) {
+        this.trie.insert(this, slot);
+      }
+    }
+  }
+
+  //Handles a key press with no active word when targeting by prefix: the key extends
+  //the typed prefix if any word continues with it, and once the prefix is a whole word
+  //(the first spawned, if several) or only one word starts with it, that word becomes
+  //active with the prefix already typed
+  int typeByPrefix(char c) {
+    if (this.trie.step(c) == -1) {
+      return MISS;
+    }
+    int slot = this.trie.firstEndingHere();
+    if (slot == -1) {
+      slot = this.trie.onlyCandidate();
+    }
+    if (slot == -1) {
+      return HIT;
+    }
+    int prefix = this.trie.depth;
+    this.trie.reset();
+    this.activate(slot);
+    this.typed[slot] = prefix;
+    this.touch(slot);
+    return this.isEmpty(slot) ? COMPLETE : ACTIVATE;
+  }
+
+  //Handles the first 'n' key presses in 'keys' in order, exactly as type(c, false) on
+  //each would, but once a single word is active the rest of the batch is matched
+  //against it in one tight loop and it is touched once
+  public void typeAll(char[] keys, int n) {
+    int i = 0;
+    while (i < n && this.activeSlot == -1) {
+      this.type(keys[i], false);
+      i++;
+    }
+    int slot = this.activeSlot;
+    if (i < n) {
+      int before = this.typed[slot];
+      for (; i < n; i++) {
+        if (this.matches(slot, keys[i])) {
+          this.typed[slot]++;
+        }
+      }
+      if (this.typed[slot] != before) {
+        this.touch(slot);
+      }
+    }
+  }
+
+  //Returns the number of live words
+  public int size() {
+    return this.count;
+  }
+
+  //Returns the slot of the 'i'th live word in list order
+  int slotAt(int i) {
+    return this.order[i];
+  }
+
+  //Returns the letters of the word in 'slot' that have not been typed yet
+  String remaining(int slot) {
+    return new String(this.text[slot], this.typed[slot], this.len[slot] - this.typed[slot]);
+  }
+}
@@ -0,0 +1,258 @@
+import java.util.Arrays;  // for growing the node and slot arrays
+
+//Represents a mutable trie over the text of every inactive word in a WordPool, for
+//targeting a word by the prefix typed so far rather than by its first letter alone
+//Nodes live in primitive arrays, with FANOUT children each; every node counts the
+//words below it and keeps the XOR of their slots, so when the typed prefix leaves a
+//single candidate its slot is read off the node in O(1), and reaching the candidates
+//of a prefix takes O(prefix length) however many words are on screen
+//The pool keeps it up to date through link and unlink, just like its first-letter
+//index: words are inserted when they spawn and removed when they are targeted or freed
+class WordTrie {
+  /**
+   * FIELDS:
+   * - next -> int[]
+   * - count -> int[]
+   * - slotXor -> int[]
+   * - parent -> int[]
+   * - letterOf -> int[]
+   * - endHead -> int[]
+   * - freeNodes -> int[]
+   * - freeCount -> int
+   * - nodes -> int
+   * - endNode -> int[]
+   * - nextEnd -> int[]
+   * - prevEnd -> int[]
+   * - cursor -> int
+   * - depth -> int
+   * METHODS:
+   * - letter(char) -> int
+   * - newNode(int, int) -> int
+   * - ensureSlots(int) -> void
+   * - insert(WordPool, int) -> void
+   * - remove(int) -> void
+   * - step(char) -> int
+   * - reset() -> void
+   * - candidateCount() -> int
+   * - onlyCandidate() -> int
+   * - firstEndingHere() -> int
+   * - collect(int[]) -> int
+   * METHODS ON FIELDS:
+   * - none -
+   */
+
+  //children per node: 'a' to 'z', then one for every other character
+  static final int FANOUT = 27;
+  static final int ROOT = 0;
+
+  //child of node n for letter l at next[n * FANOUT + l], or 0 (the root is nobody's child)
+  int[] next;
+  //per node: words at or below it, the XOR of their slots, its parent and letter, and
+  //the first word ending exactly at it (-1 for none)
+  int[] count;
+  int[] slotXor;
+  int[] parent;
+  int[] letterOf;
+  int[] endHead;
+  //nodes given back when their last word was removed, and how many nodes were ever used
+  int[] freeNodes;
+  int freeCount;
+  int nodes;
+
+  //per slot: the node its word ends at (-1 if not in the trie), and the other words
+  //ending there, in insertion order
+  int[] endNode;
+  int[] nextEnd;
+  int[] prevEnd;
+
+  //the node of the prefix typed so far, and its length
+  int cursor;
+  int depth;
+
+  WordTrie(int slots) {
+    int capacity = 64;
+    this.next = new int[capacity * FANOUT];
+    this.count = new int[capacity];
+    this.slotXor = new int[capacity];
+    this.parent = new int[capacity];
+    this.letterOf = new int[capacity];
+    this.endHead = new int[capacity];
+    Arrays.fill(this.endHead, -1);
+    this.freeNodes = new int[capacity];
+    this.freeCount = 0;
+    this.nodes = 1;
+    this.parent[ROOT] = -1;
+    this.endNode = new int[0];
+    this.nextEnd = new int[0];
+    this.prevEnd = new int[0];
+    this.ensureSlots(slots);
+    this.cursor = ROOT;
+    this.depth = 0;
+  }
+
+  //Returns the child index of 'c'
+  int letter(char c) {
+    return c >= 'a' && c <= 'z' ? c - 'a' : FANOUT - 1;
+  }
+
+  //Returns a fresh node under 'from' for letter 'l', linked into 'from'
+  int newNode(int from, int l) {
+    int n;
+    if (this.freeCount > 0) {
+      n = this.freeNodes[--this.freeCount];
+    }
+    else {
+      if (this.nodes == this.count.length) {
+        int capacity = this.nodes * 2;
+        this.next = Arrays.copyOf(this.next, capacity * FANOUT);
+        this.count = Arrays.copyOf(this.count, capacity);
+        this.slotXor = Arrays.copyOf(this.slotXor, capacity);
+        this.parent = Arrays.copyOf(this.parent, capacity);
+        this.letterOf = Arrays.copyOf(this.letterOf, capacity);
+        this.endHead = Arrays.copyOf(this.endHead, capacity);
+        Arrays.fill(this.endHead, this.nodes, capacity, -1);
+        this.freeNodes = Arrays.copyOf(this.freeNodes, capacity);
+      }
+      n = this.nodes++;
+    }
+    this.count[n] = 0;
+    this.slotXor[n] = 0;
+    this.parent[n] = from;
+    this.letterOf[n] = l;
+    this.endHead[n] = -1;
+    Arrays.fill(this.next, n * FANOUT, n * FANOUT + FANOUT, 0);
+    this.next[from * FANOUT + l] = n;
+    return n;
+  }
+
+  //Grows the per-slot arrays to hold slots below 'slots'
+  void ensureSlots(int slots) {
+    int old = this.endNode.length;
+    if (old < slots) {
+      this.endNode = Arrays.copyOf(this.endNode, slots);
+      this.nextEnd = Arrays.copyOf(this.nextEnd, slots);
+      this.prevEnd = Arrays.copyOf(this.prevEnd, slots);
+      Arrays.fill(this.endNode, old, slots, -1);
+    }
+  }
+
+  //Adds the remaining text of the word in 'slot' of 'pool'
+  void insert(WordPool pool, int slot) {
+    this.ensureSlots(pool.capacity());
+    int n = ROOT;
+    this.count[n]++;
+    this.slotXor[n] ^= slot;
+    char[] text = pool.text[slot];
+    for (int k = pool.typed[slot]; k < pool.len[slot]; k++) {
+      int l = this.letter(text[k]);
+      int child = this.next[n * FANOUT + l];
+      n = child == 0 ? this.newNode(n, l) : child;
+      this.count[n]++;
+      this.slotXor[n] ^= slot;
+    }
+    this.endNode[slot] = n;
+    this.nextEnd[slot] = -1;
+    int last = this.endHead[n];
+    if (last == -1) {
+      this.endHead[n] = slot;
+      this.prevEnd[slot] = -1;
+    }
+    else {
+      while (this.nextEnd[last] != -1) {
+        last = this.nextEnd[last];
+      }
+      this.nextEnd[last] = slot;
+      this.prevEnd[slot] = last;
+    }
+  }
+
+  //Removes the word in 'slot', freeing the nodes only it used
+  //If that leaves the typed prefix with no candidates, the prefix starts over
+  void remove(int slot) {
+    int n = this.endNode[slot];
+    if (n == -1) {
+      return;
+    }
+    int prev = this.prevEnd[slot];
+    int after = this.nextEnd[slot];
+    if (prev == -1) {
+      this.endHead[n] = after;
+    }
+    else {
+      this.nextEnd[prev] = after;
+    }
+    if (after != -1) {
+      this.prevEnd[after] = prev;
+    }
+    this.endNode[slot] = -1;
+    while (n != -1) {
+      int up = this.parent[n];
+      this.count[n]--;
+      this.slotXor[n] ^= slot;
+      if (this.count[n] == 0 && n != ROOT) {
+        this.next[up * FANOUT + this.letterOf[n]] = 0;
+        this.freeNodes[this.freeCount++] = n;
+      }
+      n = up;
+    }
+    if (this.cursor != ROOT && this.count[this.cursor] == 0) {
+      this.reset();
+    }
+  }
+
+  //Extends the typed prefix by 'c' and returns its new node, or returns -1 and leaves
+  //the prefix alone if no word continues with 'c'
+  int step(char c) {
+    int child = this.next[this.cursor * FANOUT + this.letter(c)];
+    if (child == 0) {
+      return -1;
+    }
+    this.cursor = child;
+    this.depth++;
+    return child;
+  }
+
+  //Forgets the typed prefix
+  void reset() {
+    this.cursor = ROOT;
+    this.depth = 0;
+  }
+
+  //Returns how many words start with the typed prefix
+  int candidateCount() {
+    return this.count[this.cursor];
+  }
+
+  //Returns the slot of the one word starting with the typed prefix, or -1 if there is
+  //not exactly one
+  int onlyCandidate() {
+    return this.count[this.cursor] == 1 ? this.slotXor[this.cursor] : -1;
+  }
+
+  //Returns the first word (in insertion order) that is exactly the typed prefix, or -1
+  int firstEndingHere() {
+    return this.endHead[this.cursor];
+  }
+
+  //Writes the slots of every word starting with the typed prefix into 'into' (which
+  //must have room for candidateCount() slots) and returns how many there are
+  //This visits the prefix's whole subtree, so it is for display, not for every key
+  int collect(int[] into) {
+    int found = 0;
+    int[] stack = new int[Math.max(1, this.nodes)];
+    int top = 0;
+    stack[top++] = this.cursor;
+    while (top > 0) {
+      int n = stack[--top];
+      for (int s = this.endHead[n]; s != -1; s = this.nextEnd[s]) {
+        into[found++] = s;
+      }
+      for (int l = FANOUT - 1; l >= 0; l--) {
+        if (this.next[n * FANOUT + l] != 0) {
+          stack[top++] = this.next[n * FANOUT + l];
+        }
+      }
+    }
+    return found;
+  }
+}
@@ -3,514 +3,16 @@ import javalib.worldimages.*;   // images, like RectangleImage or OverlayImages
 import javalib.funworld.*;      // the abstract World class and the big-bang library
 import java.awt.Color;          // general colors (as triples of red,green,blue values)
 import java.util.Random;        // and predefined colors (Red, Green, Yellow, Blue, Black, White)
-
-//Represents a word
-interface IWord {
-  
-  //Returns true if the first letter of the word matches 's'
-  boolean matches(String s);
-  
-  //Removes the first letter from the word
-  IWord reduce();
-  
-  //Returns whether this IWord is an empty string
-  boolean isEmpty();
-  
-  //Draws this word in it's place on 'scene'
-  WorldScene drawWord(WorldScene scene);
-  
-  //Moves the word toward the bottom of the screen on each tick
-  IWord moveWord();
-  
-  //To check if this word causes the game to end
-  boolean touchesBottom(int height);
-  
-  //Either converts an IWord to active, or returns the already active word
-  IWord makeActive();
-  
-  //Returns active status of an IWord
-  boolean isActive();
-}
-
-//Represents an inactiveword with a string, x coordinate, and y coordinate
-class InactiveWord implements IWord {
-  /**
-   * FIELDS:
-   * word -> String
-   * x -> int
-   * y -> int
-   * METHODS:
-   * matches(String) -> boolean
-   * reduce() -> IWord
-   * isEmpty() -> boolean
-   * drawWord(WorldScene) -> WorldScene
-   * moveWord() -> IWord
-   * touchesBottom(int) -> boolean
-   * makeActive() -> IWord
-   * isActive() -> boolean
-   * METHODS ON FIELDS:
-   * - none -
-   */
-  
-  String word;
-  int x;
-  int y;
-  
-  InactiveWord(String word, int x, int y) {
-    this.word = word;
-    this.x = x;
-    this.y = y;
-  }
-  
-  //Checks if first character of a word matches the given character
-  public boolean matches(String s) {
-    return (!word.equals("") && word.substring(0, 1).equals(s));
-  }
-  
-  //Creates a duplicate IWord with the first letter removed
-  public IWord reduce() {
-    return new InactiveWord(this.word, x, y);
-  }
-  
-  //Returns whether or not this.word is an empty string
-  public boolean isEmpty() {
-    return (this.word.equals(""));
-  }
-  
-  //Draws this word at its designated x and y coordinate on the given 'scene'
-  public WorldScene drawWord(WorldScene scene) {
-    return scene.placeImageXY(new TextImage(this.word, 35, Color.RED), this.x, this.y);
-  }
-  
-  //Moves the word 25 pixels towards the bottom of the screen
-  public IWord moveWord() {
-    return new InactiveWord(this.word, this.x, this.y + 25);
-  }
-  
-  //Returns true if this word has passed the given height
-  public boolean touchesBottom(int height) {
-    return this.y >= height;
-  }
-  
-  //Returns an ActiveWord version of this word
-  public IWord makeActive() {
-    return new ActiveWord(this.word, this.x, this.y);
-  }
-  
-  //Tells that this is NOT active
-  public boolean isActive() {
-    return false;
-  }
-}
-
-//Represents an activeword with a string word, x coordinate, and y coordinate
-class ActiveWord implements IWord {
-  /**
-   * FIELDS:
-   * word -> String
-   * x -> int
-   * y -> int
-   * METHODS:
-   * matches(String) -> boolean
-   * reduce() -> IWord
-   * isEmpty() -> boolean
-   * drawWord(WorldScene) -> WorldScene
-   * moveWord() -> IWord
-   * touchesBottom(int) -> boolean
-   * makeActive() -> IWord
-   * isActive() -> boolean
-   * METHODS ON FIELDS:
-   * - none -
-   */
-  
-  String word;
-  int x;
-  int y;
-  
-  ActiveWord(String word, int x, int y) {
-    this.word = word;
-    this.x = x;
-    this.y = y;
-  }
-  
-  //Checks if first character of a word matches the given character
-  public boolean matches(String s) {
-    return (!word.equals("") && word.substring(0, 1).equals(s));
-  }
-  
-  //Creates a duplicate IWord with the first letter removed
-  public IWord reduce() {
-    return new ActiveWord(word.substring(1), x, y);
-  }
-  
-  //Returns whether or not this.word is an empty string
-  public boolean isEmpty() {
-    return this.word.equals("");
-  }
-  
-  //Draws this word at its designated x and y coordinate on the given 'scene'
-  public WorldScene drawWord(WorldScene scene) {
-    return scene.placeImageXY(new TextImage(this.word, 35, Color.GREEN), this.x, this.y);
-  }
-  
-  //Moves the word 25 pixels towards the bottom of the screen
-  public IWord moveWord() {
-    return new ActiveWord(this.word, this.x, this.y + 25);
-  }
-  
-  //Returns true if this word has passed the given height
-  public boolean touchesBottom(int height) {
-    return this.y >= height;
-  }
-  
-  //Returns an ActiveWord version of this word
-  public IWord makeActive() {
-    return this;
-  }
-  
-  //Tells that this word IS active
-  public boolean isActive() {
-    return true;
-  }
-}
-
-//Represents a list of words
-interface ILoWord {
-  //Removes the first letter from an active word in the list that starts with 'letter'
-  ILoWord checkAndReduce(String letter);
-  
-  //Adds the given IWord 'word' to the end of the list
-  ILoWord addToEnd(IWord word);
-  
-  //Gets rid of any empty-string words in the list
-  ILoWord filterOutEmpties();
-  
-  //Moves all words towards the bottom of the screen
-  ILoWord move();
-  
-  //Draws all the words in the list in their specific locations
-  WorldScene draw(WorldScene scene);
-  
-  //Checks if any of the words have reached the bottom of the screen
-  boolean touchBottom(int height);
-  
-  //Finds first occurrence of a word starting with 'letter' and makes it active
-  ILoWord activateWord(String letter);
-  
-  //Checks if there are any active words in the list
-  boolean hasActive();
-  
-}
-
-//Represents an empty list of words
-class MtLoWord implements ILoWord {
-  /**
-   * FIELDS:
-   * - none -
-   * METHODS:
-   * - checkAndReduce(String) -> ILoWord
-   * - addToEnd(IWord) -> ILoWord
-   * - filterOutEmpties() -> ILoWord
-   * - draw(WorldScene) -> WorldScene
-   * - move() -> ILoWord
-   * - touchBottom(int) -> boolean
-   * - activateWord(String) -> ILoWord
-   * - hasActive() -> boolean
-   * METHODS ON FIELDS:
-   * - none -
-   */
-  
-  //Returns empty list as there is nothing to check
-  public ILoWord checkAndReduce(String letter) {
-    return this;
-  }
-  
-  //Adds a word to the end of a list of words
-  public ILoWord addToEnd(IWord word) {
-    /* Fields:
-     * word.word -- String
-     * word.x -- int
-     * word.y -- int
-     * 
-     * Methods:
-     * word.matches(String) -- boolean
-     * word.reduce() -- IWord
-     * word.isEmpty() -- boolean
-     * word.drawWord(WorldScene) -- WorldScene
-     * word.moveWord() -- IWord
-     * word.touchesBottom(int) -- boolean
-     * word.makeActive() -- IWord
-     * word.isActive() -- boolean
-     * 
-     * Methods for fields:
-     * (none)
-     * 
-     */
-    
-    return new ConsLoWord(word, this);
-  }
-  
-  //Returns an empty list as there is nothing to filter
-  public ILoWord filterOutEmpties() {
-    return this;
-  }
-  
-  //Returns empty scene as no words to draw
-  public WorldScene draw(WorldScene scene) {
-    return scene;
-  }
-  
-  //Returns empty list as not words to move
-  public ILoWord move() {
-    return this;
-  }
-  
-  //Returns false as there is no words touching bottom of scene
-  public boolean touchBottom(int height) {
-    return false;
-  }
-  
-  //Returns empty list as there is no words to activate
-  public ILoWord activateWord(String letter) {
-    return this;
-  }
-  
-  //Returns false as there is no active words
-  public boolean hasActive() {
-    return false;
-  }
-}
-
-//Represents a list of words
-class ConsLoWord implements ILoWord {
-  /**
-   * FIELDS:
-   * - first -> IWord
-   * - rest -> ILoWord
-   * METHODS:
-   * - checkAndReduce(String) -> ILoWord
-   * - addToEnd(IWord) -> ILoWord
-   * - filterOutEmpties() -> ILoWord
-   * - draw(WorldScene) -> WorldScene
-   * - move() -> ILoWord
-   * - touchBottom(int) -> boolean
-   * - activateWord(String) -> ILoWord
-   * - hasActive() -> boolean
-   * METHODS ON FIELDS:
-   * - first.reduce() -> IWord
-   * - first.drawWord(WorldScene) -> WorldScene
-   * - first.moveWord() -> IWord
-   * - first.touchesBottom(int) -> boolean
-   * - first.matches(String) -> boolean
-   * - first.makeActive() -> IWord
-   * - first.isActive() -> boolean
-   */
-  
-  IWord first;
-  ILoWord rest;
-  
-  ConsLoWord(IWord first, ILoWord rest) {
-    this.first = first;
-    this.rest = rest;
-  }
-  
-  //Removes first letter of string in list if it matches given string
-  public ILoWord checkAndReduce(String letter) {
-    if (this.first.matches(letter)) {
-      return new ConsLoWord(this.first.reduce(), this.rest.checkAndReduce(letter));
-    }
-    else {
-      return new ConsLoWord(this.first, this.rest.checkAndReduce(letter));
-    }
-  }
-  
-  //Adds a word to the end of list
-  public ILoWord addToEnd(IWord word) {
-    /* Fields:
-     * word.word -- String
-     * word.x -- int
-     * word.y -- int
-     * 
-     * Methods:
-     * word.matches(String) -- boolean
-     * word.reduce() -- IWord
-     * word.isEmpty() -- boolean
-     * word.drawWord(WorldScene) -- WorldScene
-     * word.moveWord() -- IWord
-     * word.touchesBottom(int) -- boolean
-     * word.makeActive() -- IWord
-     * word.isActive() -- boolean
-     * 
-     * Methods for fields:
-     * (none)
-     * 
-     */
-
-    return new ConsLoWord(this.first, this.rest.addToEnd(word));
-  }
-  
-  //Filters out words with empty strings
-  public ILoWord filterOutEmpties() {
-    if (this.first.isEmpty()) {
-      return this.rest.filterOutEmpties();
-    }
-    else {
-      return new ConsLoWord(this.first, this.rest.filterOutEmpties());
-    }
-  }
-  
-  //Draws list of words to a scene
-  public WorldScene draw(WorldScene scene) {
-    return this.rest.draw(this.first.drawWord(scene));
-  }
-  
-  //Moves the words in the list down every tick
-  public ILoWord move() {
-    return new ConsLoWord(this.first.moveWord(), this.rest.move());
-  }
-  
-  //Does the word touch the bottom of the screen?
-  public boolean touchBottom(int height) {
-    return this.first.touchesBottom(height) || this.rest.touchBottom(height);
-  }
-  
-  //Turns inactive words into active words if first letter
-  //of string matches given string
-  public ILoWord activateWord(String letter) {
-    if (this.first.matches(letter) && !this.hasActive()) {
-      return new ConsLoWord(this.first.makeActive(), this.rest);
-    }
-    return new ConsLoWord(this.first, this.rest.activateWord(letter));
-  }
-  
-  //Does this list have active words?
-  public boolean hasActive() {
-    return this.first.isActive() || this.rest.hasActive();
-  }
-}
-
-//Represents a static class that produces random words of length 6
-class Utils {
-  /**
-   * FIELDS:
-   * - rand -> Random
-   * METHODS:
-   * - makeWord(String, int) -> String
-   * METHODS ON FIELDS:
-   * - rand.NextInt(int) -> int
-   */
-  
-  Random rand;
-  
-  Utils(Random rand) {
-    this.rand = rand;
-  }
-  
-  //Makes a new string starting with 'acc' (should be an empty string for initial call)
-  //String is 'letters' characters long, all randomly selected from String alph
-  String makeWord(String acc, int letters) {
-    
-    String alph = "abcdefghijklmnopqrstuvwxyz";
-    
-    int randomIndex = rand.nextInt(alph.length());
-    String randomLetter = alph.substring(randomIndex, randomIndex + 1);
-    
-    if (letters > 0) {
-      return makeWord(acc + randomLetter, letters - 1);
-    } else {
-      return acc;
-    }
-  }
-}
-
-//Represents a ZTypeWorld game
-class ZTypeWorld extends World {
-  /**
-   * FIELDS:
-   * - this.words -> ILoWords
-   * - this.rand -> Random
-   * METHODS:
-   * - this.makeScene() -> WorldScene
-   * - this.onTick() -> World
-   * - this.onKeyEvent() -> World
-   * - this.lastScene(String) -> WorldScene
-   * METHODS ON FIELDS:
-   * - words.draw(WorldScene) -> WorldScene
-   * - words.endOfWorld(String) -> World
-   * - words.addToEnd(IWord) -> ILoWord
-   * - words.move() -> ILoWord
-   * - words.checkAndReduce(String) -> ILoWord
-   */
-  
-  ILoWord words;
-  Random rand = new Random();
-  final int WIDTH = 600;
-  final int HEIGHT = 900;
-  final int TICKRATE = 1;
-  final int WORDLIMIT = 6;
-  
-  ZTypeWorld(ILoWord words) {
-    this.words = words;
-  }
-  
-  ZTypeWorld(ILoWord words, Random rand) {
-    this.words = words;
-    this.rand = rand;
-  }
-  
-  Utils u = new Utils(rand);
-  
-  //Sets up initial World program
-  public WorldScene makeScene() {
-    return this.words.draw(new WorldScene(WIDTH, HEIGHT));
-  }
-  
-  //Moves word down the screen and produces a new word every tick
-  //Produces a game over screen if word touches bottom
-  public World onTick() {
-    if (this.words.touchBottom(600)) {
-      return this.endOfWorld("Game Over");
-    } else {
-      ILoWord movedWords = this.words.addToEnd(new InactiveWord(
-          u.makeWord("", u.rand.nextInt(6) + 3),
-          (u.rand.nextInt(WIDTH - 110) + 60), 10)).filterOutEmpties();
-      return new ZTypeWorld(movedWords.move());
-    }
-  }
-  
-  //Moves word down the screen and produces a new word every tick
-  //Produces a game over screen if word touches bottom
-  //Uses a seeded random object for making the new word make it easier for testing
-  public World onTickForTesting() {
-    if (this.words.touchBottom(600)) {
-      return this.endOfWorld("Game Over");
-    } else {
-      Random seededRand = new Random(20);
-      Utils utilsForTesting = new Utils(seededRand);
-      ILoWord movedWords = this.words.addToEnd(new InactiveWord(
-          utilsForTesting.makeWord("", utilsForTesting.rand.nextInt(6)),
-          (utilsForTesting.rand.nextInt(WIDTH - 110) + 60), 10)).filterOutEmpties();
-      return new ZTypeWorld(movedWords.move(), seededRand);
-    }
-  }
-  
-  //Handles all the key presses for the ZType game
-  public World onKeyEvent(String key) {
-    
-    if (this.words.hasActive()) {
-      ILoWord updated = this.words.checkAndReduce(key);
-      return new ZTypeWorld(updated);
-    } 
-    return new ZTypeWorld(this.words.activateWord(key).checkAndReduce(key));
-  }
-  
-  //Shows the game over scene when a word hits the bottom of the screen
-  public WorldScene lastScene(String msg) {
-    WorldScene scene = new WorldScene(WIDTH, HEIGHT);
-    scene = scene.placeImageXY(new TextImage(msg, 35, Color.BLUE), WIDTH / 2 , HEIGHT / 2);
-    return scene;
-  }
-}
+import java.util.Arrays;        // to cut a replay log short in the tests
+import java.io.IOException;     // for the dictionary tests and replay logs
+import java.nio.ByteBuffer;     // for the snapshot and off-heap tests
+import java.nio.file.Files;     // to write a small dictionary for the tests
+import java.nio.file.Path;
+import java.util.ArrayList;     // the results of a tournament sweep
+import java.util.concurrent.ForkJoinPool; // to play a tournament on one thread or several
+import java.lang.management.ManagementFactory; // to read the metrics back over JMX
+import javax.management.JMException;  // for failures publishing metrics
+import javax.management.MBeanServer;
 
 // Examples and Tests for the ZTypeWorld class
 class ExamplesZType {
@@ -707,15 +209,1272 @@ class ExamplesZType {
   
   //Tests onTick method
   boolean testOnTickWithSeededRandom(Tester t) {
-    return t.checkExpect(init.onTickForTesting(), dw);
+    init.onTickForTesting();
+    return t.checkExpect(init.words.toConsList(), dw.words.toConsList())
+        && t.checkExpect(init.engine.ticks, 1);
+  }
+  
+  //Tests that a world made from a list and a Random is seeded from it, and so can be
+  //recorded when it starts empty
+  boolean testWorldSeededFromRandom(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype", ".replay");
+    file.toFile().deleteOnExit();
+    ZTypeWorld world = new ZTypeWorld(this.mt, new Random(20)).record(file);
+    world.stopRecording();
+    return t.checkExpect(world.engine.seeded, true)
+        && t.checkExpect(world.engine.seed, new Random(20).nextLong())
+        && t.checkExpect(new ReplayPlayer(file).seed, world.engine.seed);
+  }
+  
+  //Tests that writing the analytics summary removes the shutdown hook that would have
+  //written it
+  boolean testAnalyticsLeavesNoHook(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype", ".analytics");
+    file.toFile().deleteOnExit();
+    ZTypeWorld world = new ZTypeWorld(new ZTypeEngine(3)).analyze(file);
+    Thread hook = world.analyticsHook;
+    world.flushAnalytics();
+    return t.checkExpect(hook != null, true)
+        && t.checkExpect(world.analyticsHook == null, true)
+        && t.checkExpect(Runtime.getRuntime().removeShutdownHook(hook), false)
+        && t.checkExpect(Files.size(file) > 0, true);
+  }
+  
+  //Tests that finishing a recording removes the shutdown hook that would have finished it
+  boolean testRecordingLeavesNoHook(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype", ".replay");
+    file.toFile().deleteOnExit();
+    ZTypeWorld world = new ZTypeWorld(new ZTypeEngine(3)).record(file);
+    Thread hook = world.recorderHook;
+    world.stopRecording();
+    return t.checkExpect(hook != null, true)
+        && t.checkExpect(world.recorderHook == null, true)
+        && t.checkExpect(Runtime.getRuntime().removeShutdownHook(hook), false);
+  }
+  
+  //Makes a fresh ArrayLoWord holding the given words, in order
+  ArrayLoWord arrayOf(IWord... ws) {
+    ArrayLoWord list = new ArrayLoWord();
+    for (IWord w : ws) {
+      list.addToEnd(w);
+    }
+    return list;
+  }
+  
+  //Runs 1200 random spawns, key presses and ticks on 'list' (which must start empty)
+  //and on the ConsLoWord reference, and returns whether they went through the same
+  //states
+  boolean followsReference(Tester t, ILoWord list) {
+    ILoWord reference = this.mt;
+    boolean same = true;
+    for (int i = 0; i < 1200; i++) {
+      String word = i % 9 == 0 ? "" : new Utils(new Random(i)).makeWord("", 1 + i % 4);
+      IWord spawn = i % 13 == 0 ? new ActiveWord(word, i % 500, 10)
+          : new InactiveWord(word, i % 500, 10);
+      if (i % 3 == 0) {
+        String letter = word.isEmpty() ? "e" : word.substring(0, 1);
+        reference = reference.type(letter);
+        list = list.type(letter);
+      }
+      if (i % 5 == 0) {
+        TickResult expected = reference.tick(spawn, 30000);
+        TickResult actual = list.tick(spawn, 30000);
+        same = same && expected.gameOver == actual.gameOver;
+        reference = expected.words;
+        list = actual.words;
+      }
+      else {
+        reference = reference.addToEnd(spawn);
+        list = list.addToEnd(spawn);
+      }
+      if (i % 97 == 0 || i == 1199) {
+        same = same && t.checkExpect(list.toConsList(), reference)
+            && list.hasActive() == reference.hasActive()
+            && list.touchBottom(20000) == reference.touchBottom(20000);
+      }
+    }
+    WordPool copied = new WordPool(4);
+    list.addAllTo(copied);
+    return same && t.checkExpect(new ArrayLoWord(copied).toConsList(), reference);
+  }
+  
+  //Tests that ArrayLoWord behaves like the ConsLoWord reference implementation
+  boolean testArrayLoWordMatchesReference(Tester t) {
+    return t.checkExpect(this.arrayOf(aWord1, aWord2, iWord1, iWord2).toConsList(), this.words)
+        && t.checkExpect(this.arrayOf(aWord1, aWord2, iWord1, iWord2)
+            .checkAndReduce("H").toConsList(), this.words.checkAndReduce("H"))
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).checkAndReduce("h").toConsList(),
+            this.inactives)
+        && t.checkExpect(this.arrayOf(aWord1, aWord2, iWord1, iWord2)
+            .addToEnd(new ActiveWord("Word", 3, 4)).toConsList(),
+            this.words.addToEnd(new ActiveWord("Word", 3, 4)))
+        && t.checkExpect(this.arrayOf(new ActiveWord("Hello", 10, 5), new ActiveWord("", 3, 1),
+            new ActiveWord("World", 1, 400)).filterOutEmpties().toConsList(),
+            this.emptyStrs.filterOutEmpties())
+        && t.checkExpect(this.arrayOf(ray, hi).move().toConsList(), this.list2.move())
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).move().toConsList(), this.inactives.move())
+        && t.checkExpect(this.arrayOf().move().toConsList(), this.emptyList)
+        && this.followsReference(t, new ArrayLoWord(new WordPool(2)));
+  }
+  
+  //Tests ArrayLoWord's queries and activation against the reference implementation
+  boolean testArrayLoWordQueries(Tester t) {
+    return t.checkExpect(this.arrayOf(ray, hi).touchBottom(600), false)
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).touchBottom(100), true)
+        && t.checkExpect(this.arrayOf().touchBottom(100), false)
+        && t.checkExpect(this.arrayOf(ray, hi).hasActive(), true)
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).hasActive(), false)
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).activateWord("H").toConsList(),
+            this.inactives.activateWord("H"))
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).activateWord("m").toConsList(),
+            this.inactives)
+        && t.checkExpect(this.arrayOf(aWord1, aWord2).activateWord("s").toConsList(),
+            this.actives)
+        && t.checkExpect(this.arrayOf(aWord1, iWord1, iWord2).activateWord("E").toConsList(),
+            new ConsLoWord(aWord1, this.inactives).activateWord("E"))
+        && t.checkExpect(this.arrayOf(ray, hi).draw(emptyScene), this.list2.draw(emptyScene));
+  }
+  
+  //Tests that ArrayLoWord reuses freed slots and grows past its initial capacity
+  boolean testArrayLoWordSlots(Tester t) {
+    ArrayLoWord list = this.arrayOf(new ActiveWord("a", 1, 1), no);
+    list.checkAndReduce("a").filterOutEmpties().addToEnd(yes);
+    ArrayLoWord big = new ArrayLoWord(new WordPool(1));
+    for (int i = 0; i < 40; i++) {
+      big.addToEnd(new InactiveWord("w", i, 0));
+    }
+    return t.checkExpect(list.pool.slotAt(1), 0)
+        && t.checkExpect(list.toConsList(), new ConsLoWord(no, new ConsLoWord(yes, this.mt)))
+        && t.checkExpect(big.pool.size(), 40)
+        && t.checkExpect(big.pool.x[big.pool.slotAt(39)], 39);
+  }
+  
+  //Tests for tick method, against addToEnd, filterOutEmpties, move and touchBottom
+  boolean testTick(Tester t) {
+    IWord spawn = new InactiveWord("new", 100, 10);
+    return t.checkExpect(this.emptyStrs.tick(spawn, 600).words,
+        this.emptyStrs.addToEnd(spawn).filterOutEmpties().move())
+        && t.checkExpect(this.emptyStrs.tick(spawn, 600).gameOver, false)
+        && t.checkExpect(this.inactives.tick(spawn, 100).gameOver, true)
+        && t.checkExpect(this.mt.tick(this.emptyString, 600).words, this.mt)
+        && t.checkExpect(this.mt.tick(spawn, 600).words,
+            new ConsLoWord(new InactiveWord("new", 100, 35), this.mt))
+        && t.checkExpect(this.arrayOf(new ActiveWord("Hello", 10, 5), new ActiveWord("", 3, 1),
+            new ActiveWord("World", 1, 400)).tick(spawn, 600).words.toConsList(),
+            this.emptyStrs.tick(spawn, 600).words)
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).tick(spawn, 100).gameOver, true)
+        && t.checkExpect(this.arrayOf().tick(this.emptyString, 600).words.toConsList(), this.mt);
+  }
+  
+  //Tests for type method, against the activateWord and checkAndReduce it replaces
+  boolean testType(Tester t) {
+    ILoWord activeLast = new ConsLoWord(iWord1, new ConsLoWord(aWord1, this.mt));
+    return t.checkExpect(this.inactives.type("H"),
+        this.inactives.activateWord("H").checkAndReduce("H"))
+        && t.checkExpect(this.words.type("H"), this.words.checkAndReduce("H"))
+        && t.checkExpect(this.words.type("E"), this.words.checkAndReduce("E"))
+        && t.checkExpect(this.inactives.type("z"), this.inactives)
+        && t.checkExpect(activeLast.type("H"), activeLast.checkAndReduce("H"))
+        && t.checkExpect(this.mt.type("a"), this.mt)
+        && t.checkExpect(this.arrayOf(iWord1, iWord2).type("H").toConsList(),
+            this.inactives.type("H"))
+        && t.checkExpect(this.arrayOf(aWord1, aWord2, iWord1, iWord2).type("H").toConsList(),
+            this.words.type("H"))
+        && t.checkExpect(this.arrayOf(iWord1, aWord1).type("H").toConsList(),
+            activeLast.type("H"));
+  }
+  
+  //Tests the first-letter index and active-word cache of WordPool
+  boolean testWordPoolIndex(Tester t) {
+    WordPool pool = new WordPool(4);
+    int apple = pool.add("apple", 0, 0, false);
+    int bat = pool.add("bat", 0, 0, false);
+    int ant = pool.add("ant", 0, 0, false);
+    int upper = pool.add("Ant", 0, 0, false);
+    boolean beforeTyping = t.checkExpect(pool.firstStartingWith('a'), apple)
+        && t.checkExpect(pool.firstStartingWith('A'), upper)
+        && t.checkExpect(pool.firstStartingWith('z'), -1)
+        && t.checkExpect(pool.activeSlot, -1);
+    pool.type('b', false);
+    pool.type('a', false);
+    pool.type('t', false);
+    boolean afterBat = t.checkExpect(pool.activeSlot, bat)
+        && t.checkExpect(pool.isEmpty(bat), true)
+        && t.checkExpect(pool.firstStartingWith('a'), apple);
+    pool.tick(600, 25);
+    pool.type('a', false);
+    return beforeTyping && afterBat
+        && t.checkExpect(pool.size(), 3)
+        && t.checkExpect(pool.activeSlot, apple)
+        && t.checkExpect(pool.typed[apple], 1)
+        && t.checkExpect(pool.firstStartingWith('a'), ant)
+        && t.checkExpect(pool.add("bee", 0, 0, false), bat)
+        && t.checkExpect(pool.firstStartingWith('b'), bat);
+  }
+  
+  //Tests for WordGenerator
+  boolean testWordGenerator(Tester t) {
+    WordGenerator g1 = new WordGenerator(7);
+    WordGenerator g2 = new WordGenerator(7);
+    WordGenerator other = new WordGenerator(8);
+    String first = g1.nextString();
+    boolean sameSeed = t.checkExpect(g2.nextString(), first)
+        && t.checkExpect(other.nextString().equals(first), false);
+    //drain past several refills; both generators must stay in step
+    boolean inStep = true;
+    boolean inRange = true;
+    WordPool p1 = new WordPool(4);
+    WordPool p2 = new WordPool(4);
+    for (int i = 0; i < 200; i++) {
+      int s1 = g1.nextInto(p1, 10);
+      int s2 = g2.nextInto(p2, 10);
+      String w1 = p1.remaining(s1);
+      inStep = inStep && p1.x[s1] == p2.x[s2] && w1.equals(p2.remaining(s2));
+      inRange = inRange && w1.length() >= 3 && w1.length() <= 8
+          && p1.x[s1] >= 60 && p1.x[s1] < 550 && p1.y[s1] == 10
+          && w1.matches("[a-z]+");
+    }
+    ArrayLoWord pooled = new ArrayLoWord();
+    WordGenerator g3 = new WordGenerator(7);
+    g3.nextInto(pooled.pool, 10);
+    return sameSeed
+        && t.checkExpect(inStep, true)
+        && t.checkExpect(inRange, true)
+        && t.checkExpect(pooled.pool.remaining(pooled.pool.slotAt(0)), first);
+  }
+  
+  //Tests for DictionaryWordSource, over a small word list written to a temporary file,
+  //and for a tournament game drawing its words from it
+  boolean testDictionaryWordSource(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype-words", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, "cat\r\ndog\n\nmouse\nantidisestablishmentarianismwords\nCow\nant"
+        .getBytes("US-ASCII"));
+    DictionaryWordSource dict = new DictionaryWordSource(file, 3, 3, 3, 60, 550);
+    DictionaryWordSource same = new DictionaryWordSource(file, 3, 3, 3, 60, 550);
+    DictionaryWordSource fives = new DictionaryWordSource(file, 3, 5, 5, 60, 550);
+    boolean onlyThrees = true;
+    boolean sameWords = true;
+    WordPool p1 = new WordPool(4);
+    WordPool p2 = new WordPool(4);
+    for (int i = 0; i < 50; i++) {
+      String w = p1.remaining(dict.nextInto(p1, 10));
+      onlyThrees = onlyThrees && (w.equals("cat") || w.equals("dog") || w.equals("ant")
+          || w.equals("Cow"));
+      sameWords = sameWords && w.equals(p2.remaining(same.nextInto(p2, 10)));
+    }
+    ArrayLoWord pooled = new ArrayLoWord();
+    fives.nextInto(pooled.pool, 10);
+    
+    //a source sharing the index picks exactly what a freshly loaded one would
+    DictionaryWordSource shared = new DictionaryWordSource(dict, 3, 3, 3, 60, 550);
+    DictionaryWordSource fresh = new DictionaryWordSource(file, 3, 3, 3, 60, 550);
+    boolean sharedWords = true;
+    for (int i = 0; i < 50; i++) {
+      sharedWords = sharedWords
+          && p1.remaining(shared.nextInto(p1, 10)).equals(p2.remaining(fresh.nextInto(p2, 10)));
+    }
+    
+    //ranges no word can be picked from are refused up front
+    int refused = 0;
+    int[][] ranges = {{0, 3, 60, 550}, {5, 3, 60, 550}, {40, 50, 60, 550}, {3, 3, 60, 60}};
+    for (int[] range : ranges) {
+      try {
+        new DictionaryWordSource(dict, 3, range[0], range[1], range[2], range[3]);
+      }
+      catch (IllegalArgumentException e) {
+        refused++;
+      }
+    }
+    
+    GameConfig config = new GameConfig(1, 25, 1, 3, 3, 600);
+    config.dictionary = dict;
+    ZTypeEngine game = config.newEngine(9);
+    game.tick();
+    String spawned = game.pool.remaining(game.pool.slotAt(0));
+    return t.checkExpect(dict.size(), 5)
+        && t.checkExpect(dict.countOf(40, 'a'), 0)
+        && t.checkExpect(dict.countOf(0, 'a'), 0)
+        && t.checkExpect(sharedWords, true)
+        && t.checkExpect(refused, 4)
+        && t.checkExpect(spawned.length(), 3)
+        && t.checkExpect(config.toString().endsWith(" dictionary"), true)
+        && t.checkExpect(dict.countOf(3, 'c'), 1)
+        && t.checkExpect(dict.countOf(3, 'a'), 1)
+        && t.checkExpect(dict.countOf(3, 'C'), 1)
+        && t.checkExpect(dict.countOf(5, 'm'), 1)
+        && t.checkExpect(onlyThrees, true)
+        && t.checkExpect(sameWords, true)
+        && t.checkExpect(pooled.pool.remaining(pooled.pool.slotAt(0)), "mouse");
+  }
+  
+  //Tests for DictionaryWordSource picking every word of a length equally often, reading
+  //back the length it indexed, and refusing lengths it has no words for
+  boolean testDictionaryWordSourceSampling(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype-words", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, "cat\nCow\ndog\nant\nmi\rd\r\n".getBytes("US-ASCII"));
+    DictionaryWordSource dict = new DictionaryWordSource(file, 5, 3, 3, 60, 550);
+    int cows = 0;
+    for (int i = 0; i < 8000; i++) {
+      if (dict.wordAt(dict.pick()).equals("Cow")) {
+        cows++;
+      }
+    }
+    DictionaryWordSource fours = new DictionaryWordSource(dict, 5, 4, 4, 60, 550);
+    WordPool pool = new WordPool(1);
+    String odd = pool.remaining(fours.nextInto(pool, 10));
+    boolean refused = false;
+    try {
+      new DictionaryWordSource(dict, 5, 10, 12, 60, 550);
+    }
+    catch (IllegalArgumentException e) {
+      refused = true;
+    }
+    return t.checkExpect(cows > 1840 && cows < 2160, true)
+        && t.checkExpect(dict.countOf(4, 'm'), 1)
+        && t.checkExpect(odd, "mi\rd")
+        && t.checkExpect(refused, true);
+  }
+  
+  //Tests for TextImageCache
+  boolean testTextImageCache(Tester t) {
+    TextImageCache cache = new TextImageCache(2);
+    WorldImage cat = cache.get("cat", 35, Color.RED);
+    boolean reused = t.checkExpect(cat, new TextImage("cat", 35, Color.RED))
+        && t.checkExpect(cache.get("cat", 35, Color.RED) == cat, true)
+        && t.checkExpect(cache.get("scatter".toCharArray(), 1, 4, 35, Color.RED) == cat, true)
+        && t.checkExpect(cache.hits, 2L)
+        && t.checkExpect(cache.misses, 1L);
+    WorldImage green = cache.get("cat", 35, Color.GREEN);
+    cache.get("cat", 35, Color.RED);
+    cache.get("dog", 35, Color.RED);
+    return reused
+        && t.checkExpect(green, new TextImage("cat", 35, Color.GREEN))
+        && t.checkExpect(cache.size(), 2)
+        && t.checkExpect(cache.get("cat", 35, Color.RED) == cat, true)
+        && t.checkExpect(cache.get("cat", 35, Color.GREEN) == green, false)
+        && t.checkExpect(cache.misses, 4L);
+  }
+  
+  //Tests for the cached drawing of ArrayLoWord
+  boolean testFrameCache(Tester t) {
+    ArrayLoWord list = this.arrayOf(ray, iWord1, iWord2);
+    WorldScene first = list.draw(emptyScene);
+    int firstDirty = list.dirtyWordCount();
+    WorldScene again = list.draw(emptyScene);
+    int againDirty = list.dirtyWordCount();
+    list.type("r");
+    WorldScene typed = list.draw(emptyScene);
+    int typedDirty = list.dirtyWordCount();
+    list.type("a");
+    list.type("y");
+    list.tick(this.emptyString, 600);
+    list.draw(emptyScene);
+    return t.checkExpect(first, new ConsLoWord(ray, this.inactives).draw(emptyScene))
+        && t.checkExpect(firstDirty, 3)
+        && t.checkExpect(again == first, true)
+        && t.checkExpect(againDirty, 0)
+        && t.checkExpect(typed, new ConsLoWord(new ActiveWord("ay", 10, 12), this.inactives)
+            .draw(emptyScene))
+        && t.checkExpect(typedDirty, 1)
+        && t.checkExpect(list.draw(new WorldScene(400, 300)) == typed, false)
+        && t.checkExpect(list.dirtyWordCount(), 0)
+        && t.checkExpect(list.toConsList(), this.inactives.move());
+  }
+  
+  //Tests that words falling less than a pixel a step are only dirty in the steps that
+  //move them a whole pixel, while drawing between steps still follows them
+  boolean testFrameCacheSubPixel(Tester t) {
+    WordPool pool = new WordPool(4);
+    pool.defaultVelocity = WordPool.FIXED_ONE / 4;
+    pool.add("cat", 100, 10, false);
+    pool.add("dog", 200, 10, false);
+    pool.add("cow", 300, 10, false);
+    pool.vy[pool.slotAt(2)] = 0;
+    FrameCache frames = new FrameCache(pool);
+    frames.compose(emptyScene);
+    int[] dirty = new int[4];
+    for (int i = 0; i < dirty.length; i++) {
+      pool.step();
+      frames.compose(emptyScene);
+      dirty[i] = frames.dirtyWords;
+    }
+    WorldScene whole = frames.compose(emptyScene);
+    pool.step();
+    WorldScene between = frames.compose(emptyScene, 0.5);
+    return t.checkExpect(dirty, new int[] {0, 0, 0, 2})
+        && t.checkExpect(pool.y[pool.slotAt(0)], 11)
+        && t.checkExpect(pool.y[pool.slotAt(2)], 10)
+        && t.checkExpect(between == whole, false)
+        && t.checkExpect(frames.dirtyWords, 0);
+  }
+  
+  //Tests that the engine follows the same rules as the ConsLoWord reference
+  boolean testEngineMatchesReference(Tester t) {
+    ZTypeEngine engine = new ZTypeEngine(1);
+    ILoWord reference = this.mt;
+    String[] spawns = {"cat", "dog", "cow", "ant"};
+    boolean same = true;
+    for (int i = 0; i < spawns.length; i++) {
+      engine.key('c');
+      reference = reference.type("c");
+      engine.tickWith(spawns[i], 100 + i);
+      reference = reference.tick(new InactiveWord(spawns[i], 100 + i, 10), 600).words;
+      same = same && t.checkExpect(new ArrayLoWord(engine.pool).toConsList(), reference);
+    }
+    return same
+        && t.checkExpect(engine.ticks, 4)
+        && t.checkExpect(engine.liveCount(), 4);
+  }
+  
+  //Tests headless play: scripted keys, determinism and the game ending
+  boolean testEnginePlay(Tester t) {
+    ZTypeEngine idle = new ZTypeEngine(5);
+    ZTypeEngine a = new ZTypeEngine(9);
+    ZTypeEngine b = new ZTypeEngine(9);
+    int[] keyTicks = {3, 3, 3, 7, 8};
+    char[] keys = {'a', 'e', 'i', 'o', 'u'};
+    int idleTicks = idle.play(new int[0], new char[0], 1000);
+    a.play(keyTicks, keys, 12);
+    b.play(keyTicks, keys, 12);
+    return t.checkExpect(idleTicks, 24)
+        && t.checkExpect(idle.isOver(), true)
+        && t.checkExpect(idle.tick(), false)
+        && t.checkExpect(a.ticks, 12)
+        && t.checkExpect(new ArrayLoWord(a.pool).toConsList(),
+            new ArrayLoWord(b.pool).toConsList());
+  }
+  
+  //Tests sub-pixel velocities and spawn pacing in a configured engine
+  boolean testEngineConfigure(Tester t) {
+    ZTypeEngine engine = new ZTypeEngine(new WordPool(4),
+        (pool, y) -> pool.add("word", 100, y, false));
+    engine.configure(4, 10, 1);
+    engine.tick();
+    engine.tick();
+    engine.tick();
+    int beforeSpawn = engine.liveCount();
+    engine.tick();
+    int first = engine.pool.slotAt(0);
+    int spawnedAt = engine.pool.y[first];
+    int spawnedFrac = engine.pool.yFrac[first];
+    engine.tick();
+    int nextY = engine.pool.y[first];
+    int nextFrac = engine.pool.yFrac[first];
+    engine.tick();
+    engine.tick();
+    engine.tick();
+    return t.checkExpect(engine.fallVelocity, 2 * WordPool.FIXED_ONE + WordPool.FIXED_ONE / 2)
+        && t.checkExpect(beforeSpawn, 0)
+        && t.checkExpect(spawnedAt, 12)
+        && t.checkExpect(spawnedFrac, WordPool.FIXED_ONE / 2)
+        && t.checkExpect(nextY, 15)
+        && t.checkExpect(nextFrac, 0)
+        && t.checkExpect(engine.pool.y[first], 22)
+        && t.checkExpect(engine.liveCount(), 2);
+  }
+  
+  //Tests that the loop ticks once per whole step of time and interpolates in between
+  boolean testFixedStepLoop(Tester t) {
+    ZTypeEngine engine = new ZTypeEngine(new WordPool(4),
+        (pool, y) -> pool.add("word", 100, y, false));
+    long[] now = {0};
+    FixedStepLoop loop = new FixedStepLoop(engine, 10, () -> now[0]);
+    ZTypeWorld world = new ZTypeWorld(engine, loop);
+    now[0] = 250_000_000L;
+    int ticks = loop.advance();
+    double alpha = loop.alpha;
+    int slot = engine.pool.slotAt(0);
+    int y = engine.pool.y[slot];
+    int halfway = world.words.frames.drawY(slot, 0.5);
+    int before = world.words.frames.drawY(slot, 0.0);
+    int after = world.words.frames.drawY(slot, 1.0);
+    now[0] = 10_000_000_000L;
+    int capped = loop.advance();
+    return t.checkExpect(ticks, 2)
+        && t.checkExpect(alpha, 0.5)
+        && t.checkExpect(y, 60)
+        && t.checkExpect(halfway, 47)
+        && t.checkExpect(before, 35)
+        && t.checkExpect(after, 60)
+        && t.checkExpect(capped, 3)
+        && t.checkExpect(loop.tickTimes.total, 5L)
+        && t.checkExpect(world.onTick(), world)
+        && t.checkExpect(loop.tickTimes.total, 5L);
+  }
+  
+  //Tests the log-linear latency histogram
+  boolean testLatencyHistogram(Tester t) {
+    LatencyHistogram h = new LatencyHistogram("test");
+    for (int i = 1; i <= 100; i++) {
+      h.record(i * 1000L);
+    }
+    boolean inBuckets = true;
+    for (long v = 0; v < 100000; v += 37) {
+      int i = h.index(v);
+      inBuckets = inBuckets && h.lowerBound(i) <= v && v < h.lowerBound(i + 1);
+    }
+    long p50 = h.percentile(0.5);
+    long p99 = h.percentile(0.99);
+    String summary = h.summary();
+    h.reset();
+    return t.checkExpect(inBuckets, true)
+        && t.checkExpect(p50 >= 50000 && p50 < 50000 + 50000 / LatencyHistogram.SUB, true)
+        && t.checkExpect(p99 >= 99000 && p99 < 99000 + 99000 / LatencyHistogram.SUB, true)
+        && t.checkExpect(summary.startsWith("test: n=100 "), true)
+        && t.checkExpect(h.percentile(0.5), 0L)
+        && t.checkExpect(h.total, 0L);
+  }
+  
+  //Tests the row index against scans of every word, and clear spawn placement
+  boolean testWordPoolRows(Tester t) {
+    WordPool pool = new WordPool(4);
+    Random rand = new Random(3);
+    boolean agrees = true;
+    for (int i = 0; i < 200; i++) {
+      int op = rand.nextInt(4);
+      if (op < 2 || pool.size() == 0) {
+        pool.add(i % 7 == 0 ? "" : "word", rand.nextInt(600), rand.nextInt(2200) - 100, false);
+      }
+      else if (op == 2) {
+        pool.move(rand.nextInt(80) - 20);
+      }
+      else {
+        pool.tick(5000, rand.nextInt(40));
+      }
+      int lowest = -1;
+      for (int k = 0; k < pool.size(); k++) {
+        int slot = pool.slotAt(k);
+        if (lowest == -1 || pool.y[slot] > pool.y[lowest]) {
+          lowest = slot;
+        }
+      }
+      int height = rand.nextInt(2200) - 100;
+      boolean past = false;
+      for (int k = 0; k < pool.size(); k++) {
+        past = past || pool.y[pool.slotAt(k)] >= height;
+      }
+      agrees = agrees
+          && (lowest == -1 ? pool.lowest() == -1 : pool.y[pool.lowest()] == pool.y[lowest])
+          && pool.anyPast(height) == past;
+    }
+    WordPool top = new WordPool(4);
+    top.add("abcd", 300, 35, false);
+    int spawned = top.add("efgh", 310, 35, false);
+    boolean placed = top.placeClear(spawned, 60, 550);
+    int clear = top.clearOf(spawned, top.x[spawned]);
+    int lower = top.add("ijkl", 300, 200, false);
+    boolean unmoved = top.placeClear(lower, 60, 550);
+    int crowded = top.add("mnop", 500, 35, false);
+    top.add("qrstuvwxyzqrstuvwxyzqrstu", 300, 35, false);
+    return t.checkExpect(agrees, true)
+        && t.checkExpect(placed, true)
+        && t.checkExpect(top.x[spawned], 380)
+        && t.checkExpect(clear, -1)
+        && t.checkExpect(unmoved, true)
+        && t.checkExpect(top.x[lower], 300)
+        && t.checkExpect(top.placeClear(crowded, 60, 550), false)
+        && t.checkExpect(top.x[crowded], 500);
+  }
+  
+  //Tests recording a world's session and replaying it headlessly, with and without
+  //checkpoints, and that a log cut short still replays
+  boolean testReplay(Tester t) throws IOException {
+    Path file = Files.createTempFile("ztype", ".replay");
+    file.toFile().deleteOnExit();
+    ZTypeEngine engine = new ZTypeEngine(77);
+    long[] now = {0};
+    ZTypeWorld world = new ZTypeWorld(engine,
+        new FixedStepLoop(engine, 1, () -> now[0] += 1_000_000_000L)).record(file);
+    String keys = "qwertyuiopasdfghjklzxcvbnm";
+    for (int i = 0; !engine.isOver(); i++) {
+      world.onKeyEvent(keys.substring(i % 26, i % 26 + 1));
+      if (i % 3 == 0) {
+        world.onKeyEvent(keys.substring((i * 7) % 26, (i * 7) % 26 + 1));
+      }
+      world.onTick();
+    }
+    ReplayPlayer player = new ReplayPlayer(file);
+    ZTypeEngine replayed = player.run();
+    ZTypeEngine middle = player.seek(10);
+    player.takeCheckpoints(4);
+    ZTypeEngine middleFromCheckpoint = player.seek(10);
+    ZTypeEngine again = player.run();
+    
+    Path cut = Files.createTempFile("ztype", ".replay");
+    cut.toFile().deleteOnExit();
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(cut, Arrays.copyOf(bytes, bytes.length - 7));
+    ReplayPlayer partial = new ReplayPlayer(cut);
+    return t.checkExpect(replayed.ticks, engine.ticks)
+        && t.checkExpect(replayed.isOver(), true)
+        && t.checkExpect(new ArrayLoWord(replayed.pool).toConsList(),
+            new ArrayLoWord(engine.pool).toConsList())
+        && t.checkExpect(player.checkpoints.size(), 1 + engine.ticks / 4)
+        && t.checkExpect(middle.ticks, 10)
+        && t.checkExpect(new ArrayLoWord(middleFromCheckpoint.pool).toConsList(),
+            new ArrayLoWord(middle.pool).toConsList())
+        && t.checkExpect(new ArrayLoWord(again.pool).toConsList(),
+            new ArrayLoWord(engine.pool).toConsList())
+        && t.checkExpect(partial.keys.length < player.keys.length, true)
+        && t.checkExpect(partial.run().ticks <= engine.ticks, true)
+        && t.checkConstructorException(new IllegalArgumentException(
+            "Only a new, seeded game can be recorded"), "ReplayRecorder", cut, engine);
+  }
+  
+  //Tests that a snapshot restores an engine that plays on exactly like the original,
+  //through a buffer and through a saved file
+  boolean testEngineSnapshot(Tester t) throws IOException {
+    EngineSnapshot format = new EngineSnapshot();
+    ZTypeEngine engine = new ZTypeEngine(31);
+    engine.configure(2, 30, 1.5);
+    int[] keyTicks = {1, 2, 2, 5};
+    char[] keys = {'a', 'e', 'o', 'x'};
+    engine.play(keyTicks, keys, 8);
+    engine.key(engine.pool.text[engine.pool.slotAt(0)][0]);
+    ByteBuffer buffer = ByteBuffer.allocate(format.sizeOf(engine) + 3);
+    buffer.put(new byte[3]);
+    format.encode(engine, buffer);
+    boolean exact = !buffer.hasRemaining();
+    buffer.position(3);
+    ZTypeEngine restored = format.decode(buffer);
+    Path file = Files.createTempFile("ztype", ".snapshot");
+    file.toFile().deleteOnExit();
+    format.save(engine, file);
+    ZTypeEngine loaded = format.load(file);
+    boolean same = t.checkExpect(new ArrayLoWord(restored.pool).toConsList(),
+        new ArrayLoWord(engine.pool).toConsList())
+        && t.checkExpect(restored.pool.hasActive(), true);
+    for (int i = 0; i < 40; i++) {
+      char c = (char) ('a' + i % 26);
+      engine.key(c);
+      restored.key(c);
+      loaded.key(c);
+      engine.tick();
+      restored.tick();
+      loaded.tick();
+      same = same && t.checkExpect(new ArrayLoWord(restored.pool).toConsList(),
+          new ArrayLoWord(engine.pool).toConsList())
+          && t.checkExpect(new ArrayLoWord(loaded.pool).toConsList(),
+              new ArrayLoWord(engine.pool).toConsList());
+    }
+    ZTypeEngine custom = new ZTypeEngine(new WordPool(4),
+        (pool, y) -> pool.add("word", 100, y, false));
+    custom.tick();
+    ByteBuffer customSnapshot = format.snapshot(custom);
+    return same
+        && t.checkExpect(exact, true)
+        && t.checkExpect(restored.ticks, engine.ticks)
+        && t.checkExpect(restored.isOver(), engine.isOver())
+        && t.checkExpect(format.decode(customSnapshot.duplicate(), custom.source).liveCount(), 1)
+        && t.checkExpect(restored.seed, 31L);
+  }
+  
+  //Tests that a server plays many concurrent sessions to the end, each with its own
+  //game, from scripted players over local sockets
+  boolean testServer(Tester t) throws IOException, InterruptedException {
+    //every tick is a 25 pixel fall and a new word, so each game lasts 24 ticks
+    ZTypeServer server = new ZTypeServer(0, 500, 12500, 500, 2).start();
+    ZTypeLoadGenerator load = new ZTypeLoadGenerator(server.port(), 50, "asdfjkl", 100000);
+    boolean finished = load.run(20000);
+    long deadline = System.nanoTime() + 5000000000L;
+    while (server.liveSessions() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    server.close();
+    return t.checkExpect(finished, true)
+        && t.checkExpect(load.completed.get(), 50)
+        && t.checkExpect(load.failed.get(), 0)
+        && t.checkExpect(load.totalTicks.get(), 50L * 24)
+        && t.checkExpect(server.finished.get(), 50)
+        && t.checkExpect(server.liveSessions(), 0);
+  }
+  
+  //Tests that a tournament's results depend only on its seed, not on how many threads
+  //played it, and that the bots and configs behave as expected
+  boolean testTournamentRunner(Tester t) {
+    GameConfig[] configs = {new GameConfig(), new GameConfig(1, 50, 1, 3, 8, 600)};
+    BotTypist bot = new BotTypist(3, 0.05, 0);
+    ArrayList<TournamentResult> serial =
+        new TournamentRunner(new ForkJoinPool(1), 500).sweep(configs, bot, 20, 7);
+    ArrayList<TournamentResult> parallel =
+        new TournamentRunner(new ForkJoinPool(4), 500).sweep(configs, bot, 20, 7);
+    ArrayList<TournamentResult> idle = new TournamentRunner(500)
+        .sweep(configs, new BotTypist(0, 0, 0), 5, 7);
+    return t.checkExpect(parallel.get(0).ticks, serial.get(0).ticks)
+        && t.checkExpect(parallel.get(1).words, serial.get(1).words)
+        && t.checkExpect(parallel.get(1).keys, serial.get(1).keys)
+        //with no typing, the first word falls 25 pixels a tick from 10 to 600
+        && t.checkExpect(idle.get(0).totalTicks(), 5L * 24)
+        && t.checkExpect(idle.get(1).totalTicks(), 5L * 12)
+        && t.checkExpect(idle.get(0).keysPerSecond(), 0.0)
+        && t.checkExpect(serial.get(0).survivalSeconds() > 24, true)
+        && t.checkExpect(serial.get(0).totalWords() > 0, true)
+        && t.checkExpect(serial.get(1).survivalSeconds() < serial.get(0).survivalSeconds(),
+            true);
+  }
+  
+  //Tests that the key queue grows to a power of two, refuses keys when full, drains in
+  //order and wraps around
+  boolean testKeyQueue(Tester t) {
+    KeyQueue queue = new KeyQueue(3);
+    char[] into = new char[8];
+    long[] stamps = new long[8];
+    boolean filled = queue.offer('a', 1) && queue.offer('b', 2) && queue.offer('c', 3)
+        && queue.offer('d', 4);
+    boolean full = queue.offer('e', 5);
+    int first = queue.drain(into, stamps);
+    String drained = new String(into, 0, first);
+    boolean wrapped = queue.offer('f', 6) && queue.isEmpty() == false;
+    int second = queue.drain(into, stamps);
+    return t.checkExpect(filled, true)
+        && t.checkExpect(full, false)
+        && t.checkExpect(queue.keys.length, 4)
+        && t.checkExpect(drained, "abcd")
+        && t.checkExpect(stamps[3], 4L)
+        && t.checkExpect(wrapped, true)
+        && t.checkExpect(second, 1)
+        && t.checkExpect(into[0], 'f')
+        && t.checkExpect(queue.isEmpty(), true);
+  }
+  
+  //Tests that when 4 producers race one consumer, every key arrives once, and each
+  //producer's in order
+  //Everyone yields rather than spins when they cannot make progress, so this is quick
+  //on a single core, and gives up at a deadline, so a lost key fails instead of hanging
+  boolean testKeyQueueProducers(Tester t) throws InterruptedException {
+    KeyQueue shared = new KeyQueue(64);
+    int perProducer = 5000;
+    long deadline = System.nanoTime() + 10_000_000_000L;
+    Thread[] producers = new Thread[4];
+    for (int p = 0; p < producers.length; p++) {
+      char base = (char) ('a' + p);
+      producers[p] = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          while (!shared.offer(base, i)) {
+            if (System.nanoTime() > deadline) {
+              return;
+            }
+            Thread.yield();
+          }
+        }
+      });
+      producers[p].setDaemon(true);
+      producers[p].start();
+    }
+    long[] next = new long[producers.length];
+    boolean ordered = true;
+    int received = 0;
+    char[] batch = new char[64];
+    long[] batchStamps = new long[64];
+    while (received < perProducer * producers.length && System.nanoTime() < deadline) {
+      int n = shared.drain(batch, batchStamps);
+      for (int i = 0; i < n; i++) {
+        int p = batch[i] - 'a';
+        ordered = ordered && batchStamps[i] == next[p];
+        next[p]++;
+      }
+      received += n;
+      if (n == 0) {
+        Thread.yield();
+      }
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    return t.checkExpect(received, perProducer * producers.length)
+        && t.checkExpect(ordered, true)
+        && t.checkExpect(shared.isEmpty(), true);
+  }
+  
+  //Tests that a batch of keys does what the same keys pressed one at a time do
+  boolean testEngineKeys(Tester t) {
+    ZTypeEngine one = new ZTypeEngine(5);
+    ZTypeEngine batched = new ZTypeEngine(5);
+    char[] typing = "qazwsxedcrfvtgbyhnujmikolp".toCharArray();
+    for (int tick = 0; tick < 15; tick++) {
+      for (char c : typing) {
+        one.key(c);
+      }
+      batched.keys(typing, typing.length);
+      one.tick();
+      batched.tick();
+    }
+    return t.checkExpect(new ArrayLoWord(batched.pool).toConsList(),
+        new ArrayLoWord(one.pool).toConsList());
+  }
+  
+  //Tests that keys queued by a world's onKeyEvent are applied on its next tick, as if
+  //pressed on the engine directly, with none lost when its queue overflows
+  boolean testWorldKeyEvents(Tester t) {
+    char[] typing = "qazwsxedcrfvtgbyhnujmikolp".toCharArray();
+    ZTypeEngine engine = new ZTypeEngine(9);
+    ZTypeEngine direct = new ZTypeEngine(9);
+    long[] now = {0};
+    ZTypeWorld world = new ZTypeWorld(engine,
+        new FixedStepLoop(engine, 1, () -> now[0] += 1_000_000_000L));
+    for (int tick = 0; tick < 6; tick++) {
+      for (int i = 0; i < 1500; i++) {
+        char c = typing[(i * 5 + tick) % typing.length];
+        world.onKeyEvent(String.valueOf(c));
+        direct.key(c);
+      }
+      world.onTick();
+      direct.tick();
+    }
+    return t.checkExpect(new ArrayLoWord(engine.pool).toConsList(),
+            new ArrayLoWord(direct.pool).toConsList())
+        && t.checkExpect(world.loop.inputTimes.total, 6L * 1500);
+  }
+  
+  //Tests that a world's metrics follow its callbacks and are published over JMX
+  boolean testGameMetrics(Tester t) throws JMException {
+    ZTypeEngine engine = new ZTypeEngine(13);
+    long[] now = {0};
+    ZTypeWorld world = new ZTypeWorld(engine,
+        new FixedStepLoop(engine, 1, () -> now[0] += 1_000_000_000L));
+    GameMetrics metrics = world.metrics.register();
+    String keys = "etaoinshrdlucmfwypvbgkjqxz";
+    for (int i = 0; i < 10; i++) {
+      world.onKeyEvent(keys.substring(i, i + 1));
+      world.onKeyEvent(keys.substring(i + 1, i + 2));
+      world.onTick();
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    Object published = server.getAttribute(metrics.name, "LiveWords");
+    Object ticks = server.getAttribute(metrics.name, "Ticks");
+    metrics.unregister();
+    return t.checkExpect(metrics.getTicks(), 10L)
+        && t.checkExpect(metrics.getKeystrokes(), 20L)
+        && t.checkExpect(metrics.getWordsSpawned(), 10L)
+        && t.checkExpect(metrics.getLiveWords(), engine.liveCount())
+        && t.checkExpect(metrics.getWordsDestroyed(), 10L - engine.liveCount())
+        && t.checkExpect(metrics.getActiveWords() <= 1, true)
+        && t.checkExpect(metrics.getAllocatedBytesPerTick() >= -1, true)
+        && t.checkExpect(published, engine.liveCount())
+        && t.checkExpect(ticks, 10L)
+        && t.checkExpect(server.isRegistered(metrics.name), false)
+        && t.checkExpect(metrics.getSummary().startsWith("ticks=10 "), true);
+  }
+  
+  //Tests the typing analytics on presses with known times, and that analyzing a world
+  //does not change how it plays
+  boolean testTypingAnalytics(Tester t) throws IOException {
+    TypingAnalytics stats = new TypingAnalytics(null);
+    long ms = 1_000_000L;
+    stats.record('a', 0, WordPool.ACTIVATE);
+    stats.record('b', 100 * ms, WordPool.HIT);
+    stats.record('x', 300 * ms, WordPool.MISS);
+    stats.record('c', 400 * ms, WordPool.COMPLETE);
+    stats.record('q', 450 * ms, -1);
+    //after a pause, 'c' then 'a' is not a bigram
+    stats.record('a', 5000 * ms, WordPool.ACTIVATE);
+    stats.record('b', 5300 * ms, WordPool.HIT);
+    double rolling = stats.rollingWpm();
+    String summary = stats.summary();
+    long counted = stats.keys();
+    //a press long after the window has passed leaves only itself in it
+    stats.record('d', 200_000 * ms, WordPool.HIT);
+    
+    Path file = Files.createTempFile("ztype", ".typing");
+    file.toFile().deleteOnExit();
+    ZTypeEngine engine = new ZTypeEngine(21);
+    ZTypeEngine plain = new ZTypeEngine(21);
+    long[] now = {0};
+    long[] plainNow = {0};
+    ZTypeWorld world = new ZTypeWorld(engine,
+        new FixedStepLoop(engine, 1, () -> now[0] += 1_000_000_000L)).analyze(file);
+    ZTypeWorld plainWorld = new ZTypeWorld(plain,
+        new FixedStepLoop(plain, 1, () -> plainNow[0] += 1_000_000_000L));
+    String keys = "etaoinshrdlucmfwypvbgkjqxz";
+    int pressed = 0;
+    for (int i = 0; !engine.isOver(); i++) {
+      for (int k = 0; k < 3; k++) {
+        String key = keys.substring((i * 3 + k) % 26, (i * 3 + k) % 26 + 1);
+        world.onKeyEvent(key);
+        plainWorld.onKeyEvent(key);
+        pressed++;
+      }
+      world.onTick();
+      plainWorld.onTick();
+    }
+    String written = new String(Files.readAllBytes(file));
+    return t.checkExpect(counted, 6L)
+        && t.checkExpect(stats.totalMisses(), 1L)
+        && t.checkExpect(stats.accuracy(stats.letter('x')), 0.0)
+        && t.checkExpect(stats.accuracy(stats.letter('a')), 1.0)
+        && t.checkExpect(stats.bigramMillis('a', 'b'), 200.0)
+        && t.checkExpect(stats.bigramMillis('c', 'a'), 0.0)
+        && t.checkExpect(stats.activations, 2L)
+        && t.checkExpect(stats.completions, 1L)
+        //5 correct presses over 6 seconds is one word in a tenth of a minute
+        && t.checkExpect(rolling, 10.0)
+        && t.checkExpect(summary.startsWith("keys=6 misses=1 accuracy=83.3%"), true)
+        && t.checkExpect(stats.windowSum, 1)
+        && t.checkExpect(new ArrayLoWord(engine.pool).toConsList(),
+            new ArrayLoWord(plain.pool).toConsList())
+        && t.checkExpect(plain.isOver(), true)
+        && t.checkExpect(world.analytics.keys(), (long) pressed)
+        && t.checkExpect(world.analytics.keys() > world.analytics.totalMisses(), true)
+        && t.checkExpect(written, world.analytics.summary());
+  }
+  
+  //Tests that stress levels hold their population while the bot keeps finishing words,
+  //and that a level is the same whenever it is run
+  //How the cost grows with the population is measured by the stressTick benchmark
+  boolean testStressScaling(Tester t) {
+    StressTest stress = new StressTest(64, 1, 100, 200);
+    StressLevel small = stress.run(500);
+    StressLevel large = stress.run(4000);
+    StressLevel again = stress.run(4000);
+    return t.checkExpect(small.meanLive >= 500 - 64, true)
+        && t.checkExpect(large.meanLive >= 4000 - 64, true)
+        && t.checkExpect(small.finished > 0, true)
+        && t.checkExpect(large.finished > 0, true)
+        && t.checkExpect(again.finished, large.finished)
+        && t.checkExpect(again.meanLive, large.meanLive);
+  }
+  
+  //Tests that pool slots are recycled with their letters' storage, reset for their new
+  //word, and that claims are counted; and that a steady game only ever reuses slots
+  //(the stressTick benchmark, run with the GC profiler, shows it allocates nothing)
+  boolean testWordPoolRecycling(Tester t) {
+    WordPool pool = new WordPool(4);
+    pool.reserve(16, 8);
+    int first = pool.add("cat", 100, 10, false);
+    char[] storage = pool.text[first];
+    pool.type('c', false);
+    pool.type('a', false);
+    pool.type('t', false);
+    pool.stepSlot(first);
+    pool.step();
+    int reused = pool.add("dog", 200, 10, false);
+    boolean fresh = pool.typed[reused] == 0 && !pool.active[reused]
+        && pool.yFrac[reused] == 0 && pool.y[reused] == 10;
+    for (int i = 0; i < 1000; i++) {
+      pool.add("word", 100, 10 + i % 500, false);
+      pool.add("letters", 300, 10 + i % 500, false);
+      pool.type('w', false);
+      pool.type('o', false);
+      pool.type('r', false);
+      pool.type('d', false);
+      pool.step();
+      pool.type('l', false);
+      pool.type('e', false);
+      pool.type('t', false);
+      pool.type('t', false);
+      pool.type('e', false);
+      pool.type('r', false);
+      pool.type('s', false);
+      pool.step();
+    }
+    double steadyMisses = pool.missRate();
+    pool.add("extraordinarily", 100, 10, false);
+    
+    //a seeded game with a bot that keeps up, past warm-up
+    ZTypeEngine engine = new ZTypeEngine(3);
+    engine.configure(1, 1, 0.5);
+    engine.bottom = Integer.MAX_VALUE;
+    BotTypist bot = new BotTypist(8, 0.1, 1);
+    for (int i = 0; i < 2000; i++) {
+      bot.typeFor(engine);
+      engine.tick();
+    }
+    long claims = engine.pool.claims;
+    long misses = engine.pool.claimMisses;
+    int capacity = engine.pool.capacity();
+    for (int i = 0; i < 2000; i++) {
+      bot.typeFor(engine);
+      engine.tick();
+    }
+    return t.checkExpect(reused, first)
+        && t.checkExpect(pool.text[reused] == storage, true)
+        && t.checkExpect(pool.remaining(reused), "dog")
+        && t.checkExpect(fresh, true)
+        && t.checkExpect(pool.capacity(), 16)
+        && t.checkExpect(steadyMisses, 0.0)
+        && t.checkExpect(pool.claimMisses, 1L)
+        && t.checkExpect(pool.claims, 2003L)
+        && t.checkExpect(engine.pool.claims > claims, true)
+        && t.checkExpect(engine.pool.claimMisses, misses)
+        && t.checkExpect(engine.pool.capacity(), capacity);
+  }
+  
+  //Tests targeting by prefix: typing narrows the words sharing a prefix until one is
+  //left or the prefix is a whole word, and the trie follows spawns and removals
+  boolean testWordTrie(Tester t) {
+    WordPool pool = new WordPool(4);
+    pool.usePrefixTargeting();
+    int cart = pool.add("cart", 100, 10, false);
+    int carbon = pool.add("carbon", 200, 10, false);
+    int cap = pool.add("cap", 300, 10, false);
+    pool.add("dog", 400, 10, false);
+    int[] outcomes = new int[8];
+    outcomes[0] = pool.typeKey('c');
+    outcomes[1] = pool.typeKey('a');
+    int[] candidates = new int[4];
+    int found = pool.trie.collect(candidates);
+    outcomes[2] = pool.typeKey('x');
+    outcomes[3] = pool.typeKey('r');
+    int narrowed = pool.trie.candidateCount();
+    outcomes[4] = pool.typeKey('b');
+    String rest = pool.remaining(carbon);
+    int onScreen = pool.trie.count[WordTrie.ROOT];
+    outcomes[5] = pool.typeKey('o');
+    outcomes[6] = pool.typeKey('n');
+    pool.step();
+    pool.add("car", 100, 50, false);
+    pool.typeKey('c');
+    pool.typeKey('a');
+    outcomes[7] = pool.typeKey('r');
+    pool.step();
+    return t.checkExpect(outcomes, new int[] {WordPool.HIT, WordPool.HIT, WordPool.MISS,
+        WordPool.HIT, WordPool.ACTIVATE, WordPool.HIT, WordPool.COMPLETE, WordPool.COMPLETE})
+        && t.checkExpect(found, 3)
+        && t.checkExpect(candidates[0] + candidates[1] + candidates[2], cart + carbon + cap)
+        && t.checkExpect(narrowed, 2)
+        && t.checkExpect(rest, "on")
+        && t.checkExpect(onScreen, 3)
+        && t.checkExpect(pool.size(), 3)
+        && t.checkExpect(pool.trie.count[WordTrie.ROOT], 3);
+  }
+  
+  //Tests that without prefix targeting, the first letter picks the first word and a
+  //letter only another candidate has next is a miss
+  boolean testFirstLetterTargeting(Tester t) {
+    WordPool plain = new WordPool(4);
+    int plainCart = plain.add("cart", 100, 10, false);
+    plain.add("carbon", 200, 10, false);
+    plain.typeKey('c');
+    plain.typeKey('a');
+    plain.typeKey('r');
+    int plainB = plain.typeKey('b');
+    return t.checkExpect(plain.activeSlot, plainCart)
+        && t.checkExpect(plainB, WordPool.MISS);
+  }
+  
+  //Tests that over a whole game the trie always holds exactly the inactive words
+  boolean testWordTrieFollowsGame(Tester t) {
+    ZTypeEngine engine = new ZTypeEngine(8);
+    engine.usePrefixTargeting();
+    String keys = "thequickbrownfoxjumpsoverthelazydog";
+    boolean consistent = true;
+    for (int i = 0; !engine.isOver(); i++) {
+      engine.key(keys.charAt(i % keys.length()));
+      engine.key(keys.charAt((i * 7) % keys.length()));
+      engine.tick();
+      consistent = consistent && engine.pool.trie.count[WordTrie.ROOT]
+          == engine.liveCount() - engine.pool.activeCount;
+    }
+    return t.checkExpect(consistent, true);
+  }
+  
+  //Tests that the trie frees the nodes of words as they are completed
+  boolean testWordTrieFreesNodes(Tester t) {
+    WordPool emptied = new WordPool(4);
+    emptied.usePrefixTargeting();
+    emptied.add("ab", 0, 0, false);
+    emptied.add("abc", 0, 0, false);
+    emptied.typeKey('a');
+    emptied.typeKey('b');
+    emptied.typeKey('a');
+    emptied.step();
+    emptied.typeKey('a');
+    emptied.typeKey('b');
+    emptied.typeKey('c');
+    emptied.step();
+    return t.checkExpect(emptied.size(), 0)
+        && t.checkExpect(emptied.trie.count[WordTrie.ROOT], 0)
+        && t.checkExpect(emptied.trie.freeCount, emptied.trie.nodes - 1);
+  }
+  
+  //Tests that OffHeapLoWord goes through the same states as ConsLoWord
+  boolean testOffHeapLoWordMatchesReference(Tester t) {
+    return this.followsReference(t, new OffHeapLoWord(2))
+        && t.checkExpect(new OffHeapLoWord().addToEnd(aWord1).addToEnd(aWord2)
+            .addToEnd(iWord1).addToEnd(iWord2).checkAndReduce("H").toConsList(),
+            this.words.checkAndReduce("H"))
+        && t.checkExpect(new OffHeapLoWord().addToEnd(aWord1).addToEnd(iWord1)
+            .addToEnd(iWord2).activateWord("E").toConsList(),
+            new ConsLoWord(aWord1, this.inactives).activateWord("E"))
+        && t.checkExpect(new OffHeapLoWord().addToEnd(ray).addToEnd(hi).filterOutEmpties()
+            .move().draw(emptyScene), this.list2.move().draw(emptyScene));
+  }
+  
+  //Tests that a field of 100000 off-heap words grows its buffer, then ticks and types
+  //in place, without moving to another buffer
+  //(the offHeap benchmarks, run with the GC profiler, show these allocate nothing)
+  boolean testOffHeapLoWordField(Tester t) {
+    OffHeapLoWord field = new OffHeapLoWord(16);
+    for (int i = 0; i < 100000; i++) {
+      field.addToEnd(new InactiveWord(i % 2 == 0 ? "falling" : "words", i % 500, i % 300));
+    }
+    IWord none = new InactiveWord("", 0, 0);
+    for (int i = 0; i < 20; i++) {
+      field.tick(none, 100000);
+      field.type("w");
+      field.type("o");
+    }
+    ByteBuffer records = field.records;
+    int capacity = field.capacity();
+    for (int i = 0; i < 20; i++) {
+      field.move();
+      field.type("r");
+      field.type("d");
+      field.checkAndReduce("s");
+      field.filterOutEmpties();
+      field.touchBottom(100000);
+    }
+    field.activateWord("f").type("f");
+    return t.checkExpect(capacity >= 100000, true)
+        && t.checkExpect(field.records == records, true)
+        && t.checkExpect(field.capacity(), capacity)
+        && t.checkExpect(field.size(), 99999)
+        && t.checkExpect(field.remaining(0), "alling")
+        && t.checkExpect(field.isActive(0), true)
+        && t.checkExpect(field.y(0), 1000)
+        && t.checkExpect(field.x(99998), 499);
+  }
+  
+  //Tests that words too long for an off-heap record are refused without blocking the
+  //next word
+  boolean testOffHeapLoWordRefusesLongWords(Tester t) {
+    OffHeapLoWord field = new OffHeapLoWord(2);
+    field.addToEnd(ray);
+    boolean refused = false;
+    try {
+      field.addToEnd(new InactiveWord("pneumonoultramicroscopicsilicovolcanoconiosis", 0, 0));
+    }
+    catch (IllegalArgumentException e) {
+      refused = true;
+    }
+    OffHeapLoWord afterRefusal = new OffHeapLoWord(2);
+    try {
+      afterRefusal.addToEnd(new ActiveWord("pneumonoultramicroscopicsilicovolcanoconiosis",
+          0, 0));
+    }
+    catch (IllegalArgumentException e) {
+      afterRefusal.addToEnd(new InactiveWord("hi", 15, 15));
+    }
+    return t.checkExpect(refused, true)
+        && t.checkExpect(field.size(), 1)
+        && t.checkExpect(afterRefusal.toConsList(),
+            new ConsLoWord(new InactiveWord("hi", 15, 15), this.mt))
+        && t.checkExpect(afterRefusal.hasActive(), false);
+  }
+  
+  //Tests that a stress run can keep its words off the heap
+  boolean testOffHeapStressLevel(Tester t) {
+    StressLevel level = new StressTest(64, 1, 5, 20).run(3000, true);
+    return t.checkExpect(level.meanLive >= 3000 - 64, true)
+        && t.checkExpect(level.finished > 0, true);
+  }
+  
+  //Tests that an engine keeping its words off the heap plays the same game as one
+  //keeping them in a WordPool, that a bot can play it, and that it refuses prefix
+  //targeting
+  boolean testOffHeapEngine(Tester t) {
+    GameConfig config = new GameConfig(1, 5, 1.5, 3, 8, 600);
+    ZTypeEngine onHeap = config.newEngine(11);
+    config.offHeap = true;
+    ZTypeEngine offHeap = config.newEngine(11);
+    char[] keys = new char[600];
+    int[] keyTicks = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = WordGenerator.ALPHABET.charAt(i * 7 % 26);
+      keyTicks[i] = i / 3;
+    }
+    onHeap.play(keyTicks, keys, 200);
+    offHeap.play(keyTicks, keys, 200);
+    OffHeapLoWord words = (OffHeapLoWord) offHeap.store;
+    
+    ZTypeEngine botGame = config.newEngine(12);
+    BotTypist bot = new BotTypist(3, 0, 5);
+    while (!botGame.isOver() && botGame.ticks < 200) {
+      bot.typeFor(botGame);
+      botGame.tick();
+    }
+    boolean refused = false;
+    try {
+      offHeap.usePrefixTargeting();
+    }
+    catch (UnsupportedOperationException e) {
+      refused = true;
+    }
+    return t.checkExpect(offHeap.pool == null, true)
+        && t.checkExpect(onHeap.pool.released > 0, true)
+        && t.checkExpect(offHeap.ticks, onHeap.ticks)
+        && t.checkExpect(offHeap.isOver(), onHeap.isOver())
+        && t.checkExpect(words.toConsList(), new ArrayLoWord(onHeap.pool).toConsList())
+        && t.checkExpect(offHeap.typeKey('e'), onHeap.typeKey('e'))
+        && t.checkExpect(words.toConsList(), new ArrayLoWord(onHeap.pool).toConsList())
+        && t.checkExpect(bot.words > 0, true)
+        && t.checkExpect(config.toString().endsWith(" off-heap"), true)
+        && t.checkExpect(refused, true);
+  }
+  
+  //Tests that snapshots and replays keep prefix targeting, and a snapshot the prefix
+  //typed so far, so restored games go on exactly as the originals do
+  boolean testPrefixTargetingPersists(Tester t) throws IOException {
+    IWordSource blanks = (pool, y) -> pool.add("", 300, y, false);
+    ZTypeEngine typing = new ZTypeEngine(new WordPool(4), blanks);
+    typing.usePrefixTargeting();
+    typing.pool.add("cart", 100, 10, false);
+    typing.pool.add("carbon", 200, 10, false);
+    typing.pool.add("dog", 300, 10, false);
+    typing.key('c');
+    typing.key('a');
+    EngineSnapshot snapshots = new EngineSnapshot();
+    ZTypeEngine resumed = snapshots.decode(snapshots.snapshot(typing), blanks);
+    int depth = resumed.pool.trie.depth;
+    int[] outcomes = {typing.typeKey('r'), typing.typeKey('t'),
+        resumed.typeKey('r'), resumed.typeKey('t')};
+    
+    Path file = Files.createTempFile("ztype", ".replay");
+    file.toFile().deleteOnExit();
+    ZTypeEngine engine = new ZTypeEngine(21);
+    engine.usePrefixTargeting();
+    ReplayRecorder recorder = new ReplayRecorder(file, engine);
+    char[] keys = "qazwsxedcrfvtgbyhnujmikolp".toCharArray();
+    for (int tick = 0; tick < 40 && !engine.isOver(); tick++) {
+      for (int i = 0; i < 4; i++) {
+        char c = keys[(tick * 7 + i * 3) % keys.length];
+        recorder.key(engine.ticks, c);
+        engine.key(c);
+      }
+      engine.tick();
+    }
+    recorder.end(engine.ticks, engine.isOver());
+    recorder.close();
+    ReplayPlayer player = new ReplayPlayer(file);
+    player.takeCheckpoints(7);
+    ZTypeEngine replayed = player.run();
+    ZTypeEngine restarted = player.seek(20);
+    return t.checkExpect(depth, 2)
+        && t.checkExpect(outcomes, new int[] {WordPool.HIT, WordPool.COMPLETE,
+            WordPool.HIT, WordPool.COMPLETE})
+        && t.checkExpect(new ArrayLoWord(resumed.pool).toConsList(),
+            new ArrayLoWord(typing.pool).toConsList())
+        && t.checkExpect(player.prefixTargeting, true)
+        && t.checkExpect(restarted.pool.trie != null, true)
+        && t.checkExpect(replayed.ticks, engine.ticks)
+        && t.checkExpect(new ArrayLoWord(replayed.pool).toConsList(),
+            new ArrayLoWord(engine.pool).toConsList());
   }
   
   //Tests for BigBang to run game
+  //The engine runs at 60 ticks a second and words fall 12.5 pixels a second, with a
+  //new word every 2 seconds
   boolean testBigBang(Tester t) {
-    ZTypeWorld world = new ZTypeWorld(new MtLoWord());
+    ZTypeEngine engine = new ZTypeEngine(new WordPool(16),
+        new WordGenerator(new Random().nextLong()));
+    engine.configure(60, 12.5, 0.5);
+    FixedStepLoop loop = new FixedStepLoop(engine, 60);
+    ZTypeWorld world = new ZTypeWorld(engine, loop);
     int WIDTH = 600;
     int HEIGHT = 900;
-    double tickRate = 2;
+    double tickRate = 1.0 / 60;
     return world.bigBang(WIDTH, HEIGHT, tickRate);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+//Represents the rules of a ZType game, with no window or javalib types involved
+//Every tick, words past the bottom end the game, typed-out words are removed, the
+//rest fall, and new words are spawned near the top; every key press reduces the
+//active word or activates a new one
+//A tick is one fixed timestep: words fall by their own sub-pixel velocity and spawns
+//are paced by an accumulator, so speeds can be given per second (see configure)
+//Seeded engines are deterministic, so games can be replayed and simulated offline
+//far faster than real time
+//The words live in any IWordStore; snapshots, replays, metrics and drawing need the
+//store to be a WordPool
+class ZTypeEngine {
+  /**
+   * FIELDS:
+   * - store -> IWordStore
+   * - pool -> WordPool
+   * - source -> IWordSource
+   * - bottom -> int
+   * - spawnY -> int
+   * - minX -> int
+   * - maxX -> int
+   * - fallVelocity -> int
+   * - spawnsPerTick -> double
+   * - spawnDebt -> double
+   * - ticks -> int
+   * - over -> boolean
+   * - seed -> long
+   * - seeded -> boolean
+   * METHODS:
+   * - configure(double, double, double) -> void
+   * - tick() -> boolean
+   * - spawn() -> void
+   * - tickWith(String, int) -> boolean
+   * - advance() -> boolean
+   * - key(char) -> void
+   * - keys(char[], int) -> void
+   * - typeKey(char) -> int
+   * - usePrefixTargeting() -> void
+   * - play(int[], char[], int) -> int
+   * - playFrom(int[], char[], int, int) -> int
+   * - isOver() -> boolean
+   * - liveCount() -> int
+   * METHODS ON FIELDS:
+   * - store.setDefaultVelocity(int) -> void
+   * - store.anyPast(int) -> boolean
+   * - store.step() -> void
+   * - store.stepSlot(int) -> void
+   * - store.placeClear(int, int, int) -> boolean
+   * - store.type(char, boolean) -> void
+   * - store.typeAll(char[], int) -> void
+   * - store.typeKey(char) -> int
+   * - store.usePrefixTargeting() -> void
+   * - store.add(String, int, int, boolean) -> int
+   * - store.size() -> int
+   * - pool.reserve(int, int) -> void
+   * - source.nextInto(IWordStore, int) -> int
+   */
+
+  IWordStore store;
+  //the store, if it is a WordPool, or else null
+  WordPool pool;
+  IWordSource source;
+
+  //a word at or below 'bottom' ends the game
+  int bottom;
+  //new words appear at 'spawnY' and fall 'fallVelocity' 1/65536ths of a pixel per tick
+  int spawnY;
+  int fallVelocity;
+  //spawned words are kept clear of each other between 'minX' and 'maxX'
+  int minX;
+  int maxX;
+  //how many words to spawn per tick, and the fraction of a word owed so far
+  double spawnsPerTick;
+  double spawnDebt;
+
+  //completed ticks, and whether the game has ended
+  int ticks;
+  boolean over;
+
+  //the seed of the generator all words come from, if 'seeded', so the game can be
+  //recorded and replayed
+  long seed;
+  boolean seeded;
+
+  ZTypeEngine(IWordStore store, IWordSource source) {
+    this.store = store;
+    this.pool = null;
+    this.source = source;
+    this.bottom = 600;
+    this.spawnY = 10;
+    this.minX = 60;
+    this.maxX = 550;
+    this.fallVelocity = 25 * WordPool.FIXED_ONE;
+    this.spawnsPerTick = 1;
+    this.spawnDebt = 0;
+    this.store.setDefaultVelocity(this.fallVelocity);
+    this.ticks = 0;
+    this.over = false;
+    this.seed = 0;
+    this.seeded = false;
+  }
+
+  ZTypeEngine(WordPool pool, IWordSource source) {
+    this((IWordStore) pool, source);
+    this.pool = pool;
+  }
+
+  //Makes an empty game whose words all come from a generator seeded with 'seed'
+  ZTypeEngine(long seed) {
+    this(new WordPool(64), new WordGenerator(seed));
+    this.seed = seed;
+    this.seeded = true;
+    this.pool.reserve(64, ((WordGenerator) this.source).maxLen);
+  }
+
+  //Sets the speeds in real time: the engine will be ticked 'ticksPerSecond' times a
+  //second, words fall 'pixelsPerSecond' and 'wordsPerSecond' new words appear
+  //Words already on screen keep the velocity they were spawned with
+  void configure(double ticksPerSecond, double pixelsPerSecond, double wordsPerSecond) {
+    this.fallVelocity = (int) Math.round(pixelsPerSecond / ticksPerSecond * WordPool.FIXED_ONE);
+    this.spawnsPerTick = wordsPerSecond / ticksPerSecond;
+    this.store.setDefaultVelocity(this.fallVelocity);
+  }
+
+  //Runs one tick, spawning the words owed from the source
+  //Returns false if the game is (now) over
+  boolean tick() {
+    if (!this.advance()) {
+      return false;
+    }
+    this.spawnDebt += this.spawnsPerTick;
+    while (this.spawnDebt >= 1) {
+      this.spawnDebt -= 1;
+      this.spawn();
+    }
+    this.ticks++;
+    return true;
+  }
+
+  //Adds the next word from the source, already one step below 'spawnY', moving it
+  //sideways if it would overlap a word already near the top
+  void spawn() {
+    int slot = this.source.nextInto(this.store, this.spawnY);
+    if (slot >= 0) {
+      this.store.stepSlot(slot);
+      this.store.placeClear(slot, this.minX, this.maxX);
+    }
+  }
+
+  //Runs one tick, spawning 'word' at 'x' instead of a word from the source
+  //Returns false if the game is (now) over
+  boolean tickWith(String word, int x) {
+    if (!this.advance()) {
+      return false;
+    }
+    if (!word.isEmpty()) {
+      this.store.stepSlot(this.store.add(word, x, this.spawnY, false));
+    }
+    this.ticks++;
+    return true;
+  }
+
+  //Checks for a word past the bottom, then culls and moves in one pass over the store
+  //Returns false, and ends the game, if a word had passed the bottom
+  boolean advance() {
+    if (this.over) {
+      return false;
+    }
+    if (this.store.anyPast(this.bottom)) {
+      this.over = true;
+      return false;
+    }
+    this.store.step();
+    return true;
+  }
+
+  //Handles one key press; ignored once the game is over
+  void key(char c) {
+    if (!this.over) {
+      this.store.type(c, false);
+    }
+  }
+
+  //Handles the first 'n' key presses in 'keys' in one pass; ignored once the game is over
+  void keys(char[] keys, int n) {
+    if (!this.over) {
+      this.store.typeAll(keys, n);
+    }
+  }
+
+  //Handles one key press and returns what it did (see WordPool.typeKey), or -1 if the
+  //game is over and it was ignored
+  int typeKey(char c) {
+    return this.over ? -1 : this.store.typeKey(c);
+  }
+
+  //Lets players pick among words sharing a prefix by typing on until it is unambiguous
+  //(see WordPool.typeByPrefix); by default the first word with the first letter typed is
+  //picked, as in the original game
+  //Snapshots keep the mode, and so do replays, provided it is set before recording starts
+  void usePrefixTargeting() {
+    this.store.usePrefixTargeting();
+  }
+
+  //Plays a scripted game: before tick t, every key whose entry in 'keyTicks' is t is
+  //pressed, in order ('keyTicks' must be ascending)
+  //Stops after 'maxTicks' ticks or when the game ends, and returns the ticks completed
+  int play(int[] keyTicks, char[] keys, int maxTicks) {
+    this.playFrom(keyTicks, keys, 0, maxTicks);
+    return this.ticks;
+  }
+
+  //Plays a scripted game like play, starting at key 'next' of the script, and returns
+  //the index of the first key not yet pressed
+  int playFrom(int[] keyTicks, char[] keys, int next, int maxTicks) {
+    while (!this.over && this.ticks < maxTicks) {
+      while (next < keys.length && keyTicks[next] <= this.ticks) {
+        this.key(keys[next]);
+        next++;
+      }
+      this.tick();
+    }
+    return next;
+  }
+
+  //Returns true once a word has reached the bottom
+  boolean isOver() {
+    return this.over;
+  }
+
+  //Returns the number of words on screen
+  int liveCount() {
+    return this.store.size();
+  }
+}
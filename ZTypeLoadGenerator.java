@@ -0,0 +1,132 @@
+import java.io.IOException;                       // for socket failures
+import java.net.InetAddress;                      // the server is on loopback
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;                       // for the seed, keys and result
+import java.nio.channels.SocketChannel;           // one scripted player's connection
+import java.util.concurrent.ExecutorService;      // runs one thread per player
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger; // results gathered from every player
+import java.util.concurrent.atomic.AtomicLong;
+
+//Represents a load test of a ZTypeServer: many scripted players connecting at once,
+//each typing the same keystrokes at a fixed pace and waiting for its game to end
+//Each player runs on its own thread, from the same kind of executor as the server's
+//connections, so thousands of players need not mean thousands of platform threads
+class ZTypeLoadGenerator {
+  /**
+   * FIELDS:
+   * - port -> int
+   * - players -> int
+   * - script -> String
+   * - keyIntervalNanos -> long
+   * - completed -> AtomicInteger
+   * - failed -> AtomicInteger
+   * - totalTicks -> AtomicLong
+   * - gameTimes -> LatencyHistogram
+   * METHODS:
+   * - run(long) -> boolean
+   * - play(long) -> void
+   * - summary() -> String
+   * - main(String[]) -> void
+   * METHODS ON FIELDS:
+   * - gameTimes.record(long) -> void
+   * - gameTimes.summary() -> String
+   */
+
+  int port;
+  int players;
+  String script;
+  long keyIntervalNanos;
+
+  AtomicInteger completed;
+  AtomicInteger failed;
+  AtomicLong totalTicks;
+  LatencyHistogram gameTimes;
+
+  //Makes a load test of 'players' players on the server at 'port', each sending the
+  //keys of 'script' one every 'keyIntervalNanos'
+  ZTypeLoadGenerator(int port, int players, String script, long keyIntervalNanos) {
+    this.port = port;
+    this.players = players;
+    this.script = script;
+    this.keyIntervalNanos = keyIntervalNanos;
+    this.completed = new AtomicInteger();
+    this.failed = new AtomicInteger();
+    this.totalTicks = new AtomicLong();
+    this.gameTimes = new LatencyHistogram("game");
+  }
+
+  //Plays every player's game, seeded 0 to players - 1, and waits for them all
+  //Returns false if they did not all finish within 'timeoutMillis'
+  boolean run(long timeoutMillis) throws InterruptedException {
+    ExecutorService executor = ZTypeServer.newThreadPerTaskExecutor();
+    for (int i = 0; i < this.players; i++) {
+      long seed = i;
+      executor.execute(() -> this.play(seed));
+    }
+    executor.shutdown();
+    return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  //Plays one game seeded 'seed': sends the script, then waits for the result
+  void play(long seed) {
+    long start = System.nanoTime();
+    try (SocketChannel channel = SocketChannel.open(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), this.port))) {
+      ByteBuffer out = ByteBuffer.allocate(8);
+      out.putLong(seed).flip();
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+      ByteBuffer key = ByteBuffer.allocate(1);
+      for (int i = 0; i < this.script.length(); i++) {
+        key.clear();
+        key.put((byte) this.script.charAt(i)).flip();
+        channel.write(key);
+        TimeUnit.NANOSECONDS.sleep(this.keyIntervalNanos);
+      }
+      ByteBuffer result = ByteBuffer.allocate(8);
+      while (result.hasRemaining()) {
+        if (channel.read(result) < 0) {
+          throw new IOException("Server closed before sending the result");
+        }
+      }
+      result.flip();
+      this.totalTicks.addAndGet(result.getInt());
+      //the histogram is shared by every player, and is not thread-safe
+      synchronized (this.gameTimes) {
+        this.gameTimes.record(System.nanoTime() - start);
+      }
+      this.completed.incrementAndGet();
+    }
+    catch (IOException | InterruptedException e) {
+      this.failed.incrementAndGet();
+    }
+  }
+
+  //Returns the players that finished and failed, their average game length in ticks,
+  //and the wall-clock game times
+  String summary() {
+    int done = this.completed.get();
+    return String.format("%d players: %d completed, %d failed, %.1f ticks/game; %s",
+        this.players, done, this.failed.get(),
+        done == 0 ? 0.0 : (double) this.totalTicks.get() / done,
+        this.gameTimes.summary());
+  }
+
+  //Plays the number of players given as the first argument (default 1000) against a
+  //fast-paced server on a free port, and prints the results
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    ZTypeServer server = new ZTypeServer(0, 100, 2500, 100,
+        Runtime.getRuntime().availableProcessors()).start();
+    ZTypeLoadGenerator load = new ZTypeLoadGenerator(server.port(), players,
+        "thequickbrownfoxjumpsoverthelazydog", 1000000);
+    load.run(60000);
+    System.out.println(load.summary());
+    for (LatencyHistogram shard : server.tickTimes) {
+      System.out.println(shard.summary());
+    }
+    server.close();
+  }
+}
@@ -0,0 +1,372 @@
+import java.io.IOException;                       // for socket failures
+import java.io.InputStream;                       // reads keys with a timeout
+import java.net.InetAddress;                      // sessions are served on loopback only
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;           // no key arrived within a poll
+import java.nio.ByteBuffer;                       // for reading the seed and writing results
+import java.nio.channels.ServerSocketChannel;     // where players connect
+import java.nio.channels.SocketChannel;           // one player's connection
+import java.util.ArrayList;                       // the shards
+import java.util.List;
+import java.util.Set;                             // the sessions of one shard
+import java.util.concurrent.ConcurrentHashMap;    // for the concurrent session sets
+import java.util.concurrent.ExecutorService;      // runs one thread per connection
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // ticks every session
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;     // session ids and counts
+import java.util.concurrent.locks.ReentrantLock;      // guards one session's engine
+
+//Represents a server that hosts many headless ZType games in one JVM, one per player
+//connected over a local socket
+//Every connection gets its own thread (a virtual thread where the JVM has them), which
+//blocks reading that player's keys and, once the game is over, sends the result; all
+//games are ticked by a small shared scheduler, with the sessions spread over one shard
+//per scheduler thread
+//The scheduler never does socket I/O: a game that ends on a tick is only marked
+//finished, and its connection's thread, which wakes at least once a tick period, sees
+//that and sends the result, so a player who stops reading holds up no one else
+//
+//Protocol:
+//  player -> server: the game's seed (8-byte big-endian long), then one byte per key;
+//                    a 0 byte or closing the connection ends the game
+//  server -> player: when the game ends, the ticks it lasted and the words left on
+//                    screen (4-byte big-endian ints), after which no more is sent
+class ZTypeServer {
+  /**
+   * FIELDS:
+   * - listener -> ServerSocketChannel
+   * - connections -> ExecutorService
+   * - scheduler -> ScheduledExecutorService
+   * - shards -> List<Set<GameSession>>
+   * - tickTimes -> LatencyHistogram[]
+   * - ticksPerSecond -> double
+   * - pixelsPerSecond -> double
+   * - wordsPerSecond -> double
+   * - nextId -> AtomicInteger
+   * - live -> AtomicInteger
+   * - finished -> AtomicInteger
+   * METHODS:
+   * - newThreadPerTaskExecutor() -> ExecutorService
+   * - pollMillis() -> int
+   * - start() -> ZTypeServer
+   * - acceptLoop() -> void
+   * - serve(SocketChannel) -> void
+   * - tickShard(int) -> void
+   * - end(GameSession) -> void
+   * - port() -> int
+   * - liveSessions() -> int
+   * - close() -> void
+   * - main(String[]) -> void
+   * METHODS ON FIELDS:
+   * - listener.accept() -> SocketChannel
+   * - connections.execute(Runnable) -> void
+   * - session.tick() -> boolean
+   * - session.finish() -> boolean
+   * - session.sendResult() -> void
+   * - scheduler.scheduleAtFixedRate(Runnable, long, long, TimeUnit) -> ScheduledFuture
+   */
+
+  ServerSocketChannel listener;
+  ExecutorService connections;
+  ScheduledExecutorService scheduler;
+  List<Set<GameSession>> shards;
+  LatencyHistogram[] tickTimes;
+
+  //how often every game is ticked, and how fast its words fall and appear
+  double ticksPerSecond;
+  double pixelsPerSecond;
+  double wordsPerSecond;
+
+  AtomicInteger nextId;
+  AtomicInteger live;
+  AtomicInteger finished;
+
+  //Makes a server on loopback port 'port' (0 for any free port) whose games tick
+  //'ticksPerSecond' times a second on 'shardCount' scheduler threads, with words
+  //falling 'pixelsPerSecond' and 'wordsPerSecond' new words appearing
+  ZTypeServer(int port, double ticksPerSecond, double pixelsPerSecond,
+      double wordsPerSecond, int shardCount) throws IOException {
+    this.listener = ServerSocketChannel.open();
+    this.listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    this.connections = newThreadPerTaskExecutor();
+    this.scheduler = Executors.newScheduledThreadPool(shardCount);
+    this.shards = new ArrayList<Set<GameSession>>();
+    this.tickTimes = new LatencyHistogram[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      this.shards.add(ConcurrentHashMap.newKeySet());
+      this.tickTimes[i] = new LatencyHistogram("shard " + i + " tick");
+    }
+    this.ticksPerSecond = ticksPerSecond;
+    this.pixelsPerSecond = pixelsPerSecond;
+    this.wordsPerSecond = wordsPerSecond;
+    this.nextId = new AtomicInteger();
+    this.live = new AtomicInteger();
+    this.finished = new AtomicInteger();
+  }
+
+  //Makes a server with ZType's pace (one tick a second, 25 pixels and one word per
+  //tick) ticked on one scheduler thread per core
+  ZTypeServer(int port) throws IOException {
+    this(port, 1, 25, 1, Runtime.getRuntime().availableProcessors());
+  }
+
+  //Returns an executor that starts a virtual thread per task, or a platform thread per
+  //task on JVMs without virtual threads
+  static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  //Returns how long a connection's thread waits for a key before checking whether its
+  //game has ended: one tick period, but at least a millisecond
+  int pollMillis() {
+    return (int) Math.max(1, Math.round(1000 / this.ticksPerSecond));
+  }
+
+  //Starts accepting players and ticking every shard, and returns this server
+  ZTypeServer start() {
+    long period = Math.round(1e9 / this.ticksPerSecond);
+    for (int i = 0; i < this.shards.size(); i++) {
+      int shard = i;
+      this.scheduler.scheduleAtFixedRate(() -> this.tickShard(shard), period, period,
+          TimeUnit.NANOSECONDS);
+    }
+    this.connections.execute(this::acceptLoop);
+    return this;
+  }
+
+  //Hands every new connection its own thread, until the server is closed
+  void acceptLoop() {
+    while (this.listener.isOpen()) {
+      try {
+        SocketChannel channel = this.listener.accept();
+        this.connections.execute(() -> this.serve(channel));
+      }
+      catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  //Runs one player's game: reads the seed, then feeds every key read into the game
+  //until the player ends it, disconnects or the game is over, and sends the result
+  void serve(SocketChannel channel) {
+    GameSession session = null;
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate(8);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          channel.close();
+          return;
+        }
+      }
+      buffer.flip();
+      ZTypeEngine engine = new ZTypeEngine(buffer.getLong());
+      engine.configure(this.ticksPerSecond, this.pixelsPerSecond, this.wordsPerSecond);
+      int id = this.nextId.getAndIncrement();
+      session = new GameSession(id, engine, channel);
+      this.live.incrementAndGet();
+      this.shards.get(id % this.shards.size()).add(session);
+      //reads through the socket's stream, which (unlike the channel) honors a timeout
+      channel.socket().setSoTimeout(this.pollMillis());
+      InputStream in = channel.socket().getInputStream();
+      byte[] keys = new byte[256];
+      boolean quit = false;
+      while (!quit && !session.isFinished()) {
+        try {
+          int n = in.read(keys);
+          if (n < 0) {
+            break;
+          }
+          quit = session.keys(keys, n);
+        }
+        catch (SocketTimeoutException e) {
+          //no keys this tick period; check whether the game has ended
+        }
+      }
+    }
+    catch (IOException e) {
+      //a dropped connection ends the game like a quit
+    }
+    if (session != null) {
+      this.end(session);
+      session.sendResult();
+    }
+    try {
+      channel.close();
+    }
+    catch (IOException e) {
+      return;
+    }
+  }
+
+  //Ticks every game in shard 'shard', ending the games that are over
+  //A game whose tick throws is logged and ended, since an exception escaping this
+  //method would cancel the shard's ticks for good
+  void tickShard(int shard) {
+    long start = System.nanoTime();
+    for (GameSession session : this.shards.get(shard)) {
+      try {
+        if (!session.tick()) {
+          this.end(session);
+        }
+      }
+      catch (RuntimeException e) {
+        System.err.println("ZType session " + session.id + " failed on a tick: " + e);
+        this.end(session);
+      }
+    }
+    this.tickTimes[shard].record(System.nanoTime() - start);
+  }
+
+  //Marks 'session' finished and stops ticking it, if it has not ended already; its
+  //connection's thread sends the result
+  void end(GameSession session) {
+    if (session.finish()) {
+      this.shards.get(session.id % this.shards.size()).remove(session);
+      this.live.decrementAndGet();
+      this.finished.incrementAndGet();
+    }
+  }
+
+  //Returns the port players connect to
+  int port() {
+    return this.listener.socket().getLocalPort();
+  }
+
+  //Returns the number of games in progress
+  int liveSessions() {
+    return this.live.get();
+  }
+
+  //Stops accepting players and ticking games
+  void close() throws IOException {
+    this.listener.close();
+    this.scheduler.shutdownNow();
+    this.connections.shutdownNow();
+  }
+
+  //Serves games on the port given as the first argument (default 7878) at ZType's pace
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+    ZTypeServer server = new ZTypeServer(port).start();
+    System.out.println("Serving ZType on port " + server.port());
+  }
+}
+
+//Represents one player's game on a ZTypeServer: the engine, guarded by a lock since
+//keys arrive on the connection's thread while ticks come from the scheduler
+//Once finished the engine is neither ticked nor typed into again, so its result can be
+//sent without holding the lock
+class GameSession {
+  /**
+   * FIELDS:
+   * - id -> int
+   * - engine -> ZTypeEngine
+   * - channel -> SocketChannel
+   * - lock -> ReentrantLock
+   * - finished -> volatile boolean
+   * METHODS:
+   * - keys(byte[], int) -> boolean
+   * - tick() -> boolean
+   * - finish() -> boolean
+   * - isFinished() -> boolean
+   * - sendResult() -> void
+   * METHODS ON FIELDS:
+   * - engine.key(char) -> void
+   * - engine.tick() -> boolean
+   * - channel.write(ByteBuffer) -> int
+   * - channel.shutdownOutput() -> SocketChannel
+   */
+
+  int id;
+  ZTypeEngine engine;
+  SocketChannel channel;
+  //a ReentrantLock rather than synchronized, so a virtual thread waiting on it does
+  //not hold on to its carrier thread
+  ReentrantLock lock;
+  //set under the lock, read without it by the connection's thread
+  volatile boolean finished;
+
+  GameSession(int id, ZTypeEngine engine, SocketChannel channel) {
+    this.id = id;
+    this.engine = engine;
+    this.channel = channel;
+    this.lock = new ReentrantLock();
+    this.finished = false;
+  }
+
+  //Presses the first 'n' keys in 'keys' under one acquisition of the lock, unless the
+  //game is finished
+  //Returns true if the player asked to end the game (a 0 byte)
+  boolean keys(byte[] keys, int n) {
+    this.lock.lock();
+    try {
+      for (int i = 0; i < n && !this.finished; i++) {
+        if (keys[i] == 0) {
+          return true;
+        }
+        this.engine.key((char) (keys[i] & 0xFF));
+      }
+      return false;
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  //Ticks the game; returns false once it is over or finished
+  boolean tick() {
+    this.lock.lock();
+    try {
+      return !this.finished && this.engine.tick();
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  //Marks the game finished, the first time it is called; returns whether this call was
+  //the first
+  boolean finish() {
+    this.lock.lock();
+    try {
+      if (this.finished) {
+        return false;
+      }
+      this.finished = true;
+      return true;
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  //Has the game finished?
+  boolean isFinished() {
+    return this.finished;
+  }
+
+  //Sends the result of the finished game and closes the server's side of the
+  //connection; this blocks until the player reads it, so only the connection's own
+  //thread calls it
+  void sendResult() {
+    ByteBuffer result = ByteBuffer.allocate(8);
+    result.putInt(this.engine.ticks).putInt(this.engine.liveCount()).flip();
+    try {
+      while (result.hasRemaining()) {
+        this.channel.write(result);
+      }
+      this.channel.shutdownOutput();
+    }
+    catch (IOException e) {
+      //the player is gone; there is no one left to tell
+    }
+  }
+}
@@ -0,0 +1,298 @@
+import javalib.funworld.*;               // the abstract World class and the big-bang library
+import java.awt.Color;                   // the game over message is blue
+import java.util.Random;                 // to seed the engine
+import java.util.Arrays;                 // to read the arguments of main
+import java.io.IOException;              // for failures opening a replay or analytics log
+import java.io.UncheckedIOException;     // for log failures inside world callbacks
+import java.nio.file.Path;               // where a replay or analytics log is written
+import javax.management.JMException;     // for failures publishing metrics
+
+//Represents a ZTypeWorld game
+//Unlike the word lists, a world is not a value: its engine changes in place on every
+//tick and key press, so onTick and onKeyEvent return this same world, and a world
+//kept from before a tick sees the tick too (take an EngineSnapshot to keep one)
+class ZTypeWorld extends World {
+  /**
+   * FIELDS:
+   * - this.engine -> ZTypeEngine
+   * - this.loop -> FixedStepLoop
+   * - this.words -> ArrayLoWord
+   * - this.recorder -> ReplayRecorder
+   * - this.recorderHook -> Thread
+   * - this.keys -> KeyQueue
+   * - this.batch -> char[]
+   * - this.batchStamps -> long[]
+   * - this.metrics -> GameMetrics
+   * - this.analytics -> TypingAnalytics
+   * - this.analyticsHook -> Thread
+   * METHODS:
+   * - this.makeScene() -> WorldScene
+   * - this.onTick() -> World
+   * - this.onTickForTesting() -> World
+   * - this.onKeyEvent() -> World
+   * - this.applyKeys() -> void
+   * - this.lastScene(String) -> WorldScene
+   * - this.record(Path) -> ZTypeWorld
+   * - this.stopRecording() -> void
+   * - this.removeHook(Thread) -> Thread
+   * - this.analyze(Path) -> ZTypeWorld
+   * - this.flushAnalytics() -> void
+   * - main(String[]) -> void
+   * METHODS ON FIELDS:
+   * - recorder.key(int, char) -> void
+   * - recorder.end(int, boolean) -> void
+   * - recorder.close() -> void
+   * - loop.advance() -> int
+   * - loop.recordFrame(long) -> void
+   * - loop.recordInput(long) -> void
+   * - keys.offer(char, long) -> boolean
+   * - keys.drain(char[], long[]) -> int
+   * - metrics.beforeTick() -> void
+   * - metrics.afterTick() -> void
+   * - metrics.keystroke() -> void
+   * - analytics.record(char, long, int) -> void
+   * - analytics.flush() -> void
+   * - engine.isOver() -> boolean
+   * - engine.tickWith(String, int) -> boolean
+   * - engine.keys(char[], int) -> void
+   * - engine.typeKey(char) -> int
+   * - words.drawBetween(WorldScene, double) -> WorldScene
+   * - words.addAllTo(WordPool) -> void
+   */
+  
+  //the game itself; this world only turns javalib events into engine calls and
+  //draws the engine's words, through 'words', a view of the engine's pool
+  //'loop' ticks the engine at a fixed rate however often onTick is called
+  ZTypeEngine engine;
+  FixedStepLoop loop;
+  ArrayLoWord words;
+  //where key presses are logged for replay, or null when not recording, and the
+  //shutdown hook that finishes the log if the program exits first
+  ReplayRecorder recorder;
+  Thread recorderHook;
+  //key presses waiting for the next tick, and the arrays they are drained into
+  KeyQueue keys;
+  char[] batch;
+  long[] batchStamps;
+  //counts and timings of this game, for JMX and the periodic dump
+  GameMetrics metrics;
+  //where every key press and what it did is aggregated, or null when not analyzing, and
+  //the shutdown hook that writes the summary if the program exits first
+  TypingAnalytics analytics;
+  Thread analyticsHook;
+  static final int WIDTH = 600;
+  static final int HEIGHT = 900;
+  static final int TICKRATE = 1;
+  static final int WORDLIMIT = 6;
+  
+  //the empty scene every frame is drawn onto; sharing it lets an ArrayLoWord recognize
+  //a frame in which nothing changed
+  static final WorldScene BACKGROUND = new WorldScene(WIDTH, HEIGHT);
+  
+  ZTypeWorld(ZTypeEngine engine, FixedStepLoop loop) {
+    this.engine = engine;
+    this.loop = loop;
+    this.words = new ArrayLoWord(engine.pool);
+    this.recorder = null;
+    this.recorderHook = null;
+    this.keys = new KeyQueue(1024);
+    this.batch = new char[this.keys.keys.length];
+    this.batchStamps = new long[this.keys.keys.length];
+    this.metrics = new GameMetrics(engine, loop);
+    this.analytics = null;
+    this.analyticsHook = null;
+  }
+  
+  //Makes a world that ticks 'engine' once a second (TICKRATE)
+  ZTypeWorld(ZTypeEngine engine) {
+    this(engine, new FixedStepLoop(engine, 1));
+  }
+  
+  //Makes a world starting with 'words' whose new words come from a random seed
+  ZTypeWorld(ILoWord words) {
+    this(words, new Random());
+  }
+  
+  //Makes a world starting with 'words' whose new words come from a seed drawn from
+  //'rand'; the engine keeps the seed, so a world started with no words can be recorded
+  ZTypeWorld(ILoWord words, Random rand) {
+    this(new ZTypeEngine(rand.nextLong()));
+    words.addAllTo(this.engine.pool);
+  }
+  
+  //Sets up initial World program, drawing the words between their last two positions
+  //by how far the loop is into the next tick
+  public WorldScene makeScene() {
+    long start = System.nanoTime();
+    WorldScene scene = this.words.drawBetween(BACKGROUND, this.loop.alpha);
+    this.loop.recordFrame(System.nanoTime() - start);
+    return scene;
+  }
+  
+  //Applies the keys pressed since the last call, then runs as many ticks as the time
+  //since the last call holds; each moves the words down the screen and produces new
+  //words
+  //Produces a game over screen if word touches bottom
+  public World onTick() {
+    this.metrics.beforeTick();
+    this.applyKeys();
+    this.loop.advance();
+    this.metrics.afterTick();
+    if (this.engine.isOver()) {
+      this.stopRecording();
+      this.flushAnalytics();
+      return this.endOfWorld("Game Over");
+    } else {
+      return this;
+    }
+  }
+  
+  //Moves word down the screen and produces a new word every tick
+  //Produces a game over screen if word touches bottom
+  //Uses a seeded random object for making the new word make it easier for testing
+  public World onTickForTesting() {
+    Utils utilsForTesting = new Utils(new Random(20));
+    String word = utilsForTesting.makeWord("", utilsForTesting.rand.nextInt(6));
+    int x = utilsForTesting.rand.nextInt(WIDTH - 110) + 60;
+    if (!this.engine.tickWith(word, x)) {
+      return this.endOfWorld("Game Over");
+    } else {
+      return this;
+    }
+  }
+  
+  //Queues the key presses for the ZType game, to be applied at the next tick
+  //javalib delivers keys on the thread that ticks, so if the queue is full it is
+  //applied right away rather than dropping the key
+  public World onKeyEvent(String key) {
+    if (key.length() == 1) {
+      this.metrics.keystroke();
+      long now = System.nanoTime();
+      if (!this.keys.offer(key.charAt(0), now)) {
+        this.applyKeys();
+        this.keys.offer(key.charAt(0), now);
+      }
+    }
+    return this;
+  }
+  
+  //Applies every queued key press to the engine in one batch, logging them when
+  //recording; when analyzing they are applied one at a time, to learn what each did
+  void applyKeys() {
+    int n = this.keys.drain(this.batch, this.batchStamps);
+    if (n == 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    for (int i = 0; i < n; i++) {
+      this.loop.recordInput(now - this.batchStamps[i]);
+    }
+    if (this.recorder != null && !this.engine.isOver()) {
+      try {
+        for (int i = 0; i < n; i++) {
+          this.recorder.key(this.engine.ticks, this.batch[i]);
+        }
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    if (this.analytics == null) {
+      this.engine.keys(this.batch, n);
+    }
+    else {
+      for (int i = 0; i < n; i++) {
+        this.analytics.record(this.batch[i], this.batchStamps[i],
+            this.engine.typeKey(this.batch[i]));
+      }
+    }
+  }
+  
+  //Starts logging this game to 'file' for ReplayPlayer; the game must have been made
+  //from a seeded engine and not yet started
+  //The log is finished when the game ends, or when the program exits
+  ZTypeWorld record(Path file) throws IOException {
+    this.recorder = new ReplayRecorder(file, this.engine);
+    this.recorderHook = new Thread(this::stopRecording);
+    Runtime.getRuntime().addShutdownHook(this.recorderHook);
+    return this;
+  }
+  
+  //Ends the log at the current tick and closes it, if recording, and drops the
+  //shutdown hook, so worlds that finish their logs leave no hooks behind
+  void stopRecording() {
+    this.recorderHook = this.removeHook(this.recorderHook);
+    if (this.recorder != null && !this.recorder.closed) {
+      try {
+        this.recorder.end(this.engine.ticks, this.engine.isOver());
+        this.recorder.close();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+  
+  //Starts aggregating this game's key presses, with a summary written to 'file' when
+  //the game ends, or when the program exits
+  ZTypeWorld analyze(Path file) {
+    this.analytics = new TypingAnalytics(file);
+    this.analyticsHook = new Thread(this::flushAnalytics);
+    Runtime.getRuntime().addShutdownHook(this.analyticsHook);
+    return this;
+  }
+  
+  //Writes the summary of the key presses so far, if analyzing, and drops the shutdown
+  //hook, which would only write it again
+  void flushAnalytics() {
+    this.analyticsHook = this.removeHook(this.analyticsHook);
+    if (this.analytics != null) {
+      try {
+        this.analytics.flush();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+  
+  //Removes 'hook' from the shutdown hooks, unless it is null or the program is already
+  //exiting (and so running it), and returns null
+  Thread removeHook(Thread hook) {
+    if (hook != null) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(hook);
+      }
+      catch (IllegalStateException e) {
+        //shutdown has begun and the hook is running; it cannot be removed, nor need be
+      }
+    }
+    return null;
+  }
+  
+  //Shows the game over scene when a word hits the bottom of the screen
+  public WorldScene lastScene(String msg) {
+    WorldScene scene = new WorldScene(WIDTH, HEIGHT);
+    scene = scene.placeImageXY(TextImageCache.SHARED.get(msg, 35, Color.BLUE),
+        WIDTH / 2 , HEIGHT / 2);
+    return scene;
+  }
+  
+  //Plays the game in a window, at 60 ticks a second like testBigBang
+  //With "report" among the arguments, the tick, frame and input times are printed when
+  //the program exits; with "metrics", the game's metrics are published over JMX and
+  //printed every 10 seconds
+  public static void main(String[] args) throws JMException {
+    ZTypeEngine engine = new ZTypeEngine(new Random().nextLong());
+    engine.configure(60, 12.5, 0.5);
+    FixedStepLoop loop = new FixedStepLoop(engine, 60);
+    ZTypeWorld world = new ZTypeWorld(engine, loop);
+    if (Arrays.asList(args).contains("report")) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(loop.report())));
+    }
+    if (Arrays.asList(args).contains("metrics")) {
+      world.metrics.register().dumpEvery(10000, System.out);
+    }
+    world.bigBang(WIDTH, HEIGHT, 1.0 / 60);
+  }
+}
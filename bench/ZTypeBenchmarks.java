@@ -0,0 +1,212 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;   // JMH benchmark annotations
+import org.openjdk.jmh.infra.Blackhole; // to keep results from being optimized away
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//JMH benchmarks for the word list operations and the tick and key paths, over word
+//lists from 10 to 100k words
+//Each ConsLoWord operation is measured next to its ArrayLoWord / engine counterpart,
+//so a new structure can be judged against the same numbers
+//Run with the GC profiler to see allocation per operation (see the README)
+//ConsLoWord recurses once per word, so the forks get a large thread stack
+//JMH will not generate benchmarks in the default package, where the game lives, so
+//this class is in package 'bench' and bench/run.sh compiles it beside a copy of the
+//game moved into the same package
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g"})
+public class ZTypeBenchmarks {
+
+  @Param({"10", "100", "1000", "10000", "100000"})
+  int size;
+
+  ILoWord cons;
+  ILoWord consWithEmpties;
+  ArrayLoWord array;
+  ArrayLoWord touchArray;
+  OffHeapLoWord offHeap;
+  IWord spawn;
+  IWord noSpawn;
+  Utils utils;
+  WordGenerator generator;
+  ZTypeWorld world;
+  StressTest stress;
+  ZTypeEngine stressEngine;
+  BotTypist stressBot;
+
+  //Builds lists of 'size' inactive words spread over the top of the screen, so that
+  //nothing touches the bottom and every scan runs to the end
+  @Setup(Level.Trial)
+  public void setUp() {
+    WordGenerator words = new WordGenerator(42);
+    WordPool letters = new WordPool(this.size);
+    this.cons = new MtLoWord();
+    this.consWithEmpties = new MtLoWord();
+    this.touchArray = new ArrayLoWord(new WordPool(this.size));
+    for (int i = 0; i < this.size; i++) {
+      String word = letters.remaining(words.nextInto(letters, 10));
+      int x = 60 + (i * 37) % 490;
+      this.cons = new ConsLoWord(new InactiveWord(word, x, 10), this.cons);
+      this.consWithEmpties = new ConsLoWord(
+          new InactiveWord(i % 10 == 0 ? "" : word, x, 10), this.consWithEmpties);
+      this.touchArray.addToEnd(new InactiveWord(word, x, 10));
+    }
+    this.spawn = new InactiveWord("spawn", 300, 10);
+    this.noSpawn = new InactiveWord("", 300, 10);
+    this.utils = new Utils(new Random(42));
+    this.generator = new WordGenerator(42);
+    //a world whose words never fall and whose spawns are empty (and culled on the next
+    //tick), so every onTick runs over exactly 'size' words; its clock moves one whole
+    //step per call, so every onTick runs exactly one tick
+    ZTypeEngine engine = new ZTypeEngine(new WordPool(this.size),
+        (pool, y) -> pool.add("", 300, y, false));
+    engine.configure(1, 0, 1);
+    this.touchArray.addAllTo(engine.pool);
+    long[] now = {0};
+    this.world = new ZTypeWorld(engine,
+        new FixedStepLoop(engine, 1, () -> now[0] += 1_000_000_000L));
+    //a stress game held at 'size' words by a bot, as StressTest runs it
+    this.stress = new StressTest();
+    this.stressEngine = new ZTypeEngine(new WordPool(this.size + this.stress.spawnsPerTick),
+        new WordGenerator(this.size));
+    this.stress.fill(this.stressEngine, this.size);
+    this.stressBot = new BotTypist(8, 0, this.size);
+  }
+
+  //Rebuilds the lists whose words the move benchmarks push down, so their positions
+  //start over every iteration instead of growing until they overflow
+  @Setup(Level.Iteration)
+  public void resetPositions() {
+    this.array = new ArrayLoWord(new WordPool(this.size));
+    this.touchArray.addAllTo(this.array.pool);
+    this.offHeap = new OffHeapLoWord(this.size);
+    WordPool words = this.touchArray.pool;
+    for (int i = 0; i < words.size(); i++) {
+      int slot = words.slotAt(i);
+      this.offHeap.add(words.text[slot], words.typed[slot], words.len[slot], words.x[slot],
+          words.y[slot], words.active[slot]);
+    }
+  }
+
+  @Benchmark
+  public ILoWord consAddToEnd() {
+    return this.cons.addToEnd(this.spawn);
+  }
+
+  @Benchmark
+  public ILoWord consFilterOutEmpties() {
+    return this.consWithEmpties.filterOutEmpties();
+  }
+
+  @Benchmark
+  public ILoWord consMove() {
+    return this.cons.move();
+  }
+
+  @Benchmark
+  public boolean consTouchBottom() {
+    return this.cons.touchBottom(600);
+  }
+
+  //No word starts with '#', so activation scans the whole list
+  @Benchmark
+  public ILoWord consActivateWord() {
+    return this.cons.activateWord("#");
+  }
+
+  @Benchmark
+  public ILoWord consCheckAndReduce() {
+    return this.cons.checkAndReduce("#");
+  }
+
+  //The fused tick that replaced touchBottom + addToEnd + filterOutEmpties + move
+  @Benchmark
+  public TickResult consTick() {
+    return this.cons.tick(this.spawn, 600);
+  }
+
+  //The separate traversals the fused tick replaced
+  @Benchmark
+  public ILoWord consTickUnfused(Blackhole bh) {
+    bh.consume(this.cons.touchBottom(600));
+    return this.cons.addToEnd(this.spawn).filterOutEmpties().move();
+  }
+
+  @Benchmark
+  public ILoWord consType() {
+    return this.cons.type("#");
+  }
+
+  //Positions grow by 25 per invocation until the next iteration resets them, which
+  //only matters to touchBottom, and that is measured on the untouched lists
+  @Benchmark
+  public ILoWord arrayMove() {
+    return this.array.move();
+  }
+
+  @Benchmark
+  public boolean arrayTouchBottom() {
+    return this.touchArray.touchBottom(600);
+  }
+
+  @Benchmark
+  public ILoWord arrayType() {
+    return this.array.type("#");
+  }
+
+  //Like arrayMove, the positions grow until the next iteration resets them
+  @Benchmark
+  public ILoWord offHeapMove() {
+    return this.offHeap.move();
+  }
+
+  //No word is empty and nothing spawns, so every invocation ticks 'size' words
+  @Benchmark
+  public TickResult offHeapTick() {
+    return this.offHeap.tick(this.noSpawn, Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public ILoWord offHeapType() {
+    return this.offHeap.type("#");
+  }
+
+  @Benchmark
+  public String utilsMakeWord() {
+    return this.utils.makeWord("", 6);
+  }
+
+  @Benchmark
+  public String generatorNextString() {
+    return this.generator.nextString();
+  }
+
+  @Benchmark
+  public Object worldOnTick() {
+    return this.world.onTick();
+  }
+
+  //One tick of a stress game, bot included; with the GC profiler this also shows that
+  //a steady game allocates nothing a tick
+  @Benchmark
+  public ZTypeEngine stressTick() {
+    this.stress.feed(this.stressEngine, this.size);
+    this.stressBot.typeFor(this.stressEngine);
+    this.stressEngine.tick();
+    return this.stressEngine;
+  }
+
+  //Key presses are queued by onKeyEvent and applied at the start of the next tick, so
+  //this applies the queue too, to measure handling the key and not just queueing it
+  @Benchmark
+  public Object worldOnKeyEvent() {
+    this.world.onKeyEvent("#");
+    this.world.applyKeys();
+    return this.world;
+  }
+}
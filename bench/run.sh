@@ -0,0 +1,22 @@
+#!/bin/sh
+# Builds and runs the JMH benchmarks in bench/, passing any arguments on to JMH
+#
+# JMH refuses benchmarks in the default package, and a default-package class cannot be
+# imported from any other, so this copies the game's sources into package 'bench'
+# (on their first line, so compiler messages keep their line numbers), compiles them
+# with the benchmarks and runs JMH on the result
+#
+# LIB is the directory holding the tester, javalib, jmh-core, jmh-generator-annprocess,
+# jopt-simple and commons-math3 jars (default lib), OUT where to build (default out/bench)
+set -e
+cd "$(dirname "$0")/.."
+LIB=${LIB:-lib}
+OUT=${OUT:-out/bench}
+rm -rf "$OUT"
+mkdir -p "$OUT/src/bench" "$OUT/classes"
+for f in *.java; do
+  sed '1s/^/package bench; /' "$f" > "$OUT/src/bench/$f"
+done
+cp bench/*.java "$OUT/src/bench/"
+javac -nowarn -cp "$LIB/*" -d "$OUT/classes" "$OUT/src/bench/"*.java
+exec java -cp "$OUT/classes:$LIB/*" org.openjdk.jmh.Main "$@"